@@ -20,6 +20,8 @@ export HELM_CHART_PATH="../mifos-gazelle/src/mojafos/deployer/apps/ph_template/h
 export RELEASE_NAME="phee"   
 export VALUES_FILE="ys_values.yaml"   
 export HELM_NAMESPACE="paymenthub"
+# The stack rolls the components out in dependency order; deploy/cr/ph-ee-CustomResource.yaml applies them all at once
+export CR_FILE="deploy/cr/ph-ee-PaymentHubStack.yaml"
 
 # Function to deploy the operator
 deploy_operator() {
@@ -93,6 +95,7 @@ deploy_operator() {
     # 7. Apply CRD, Operator, and CR
     echo -e "${BLUE}Applying CRD...${NC}"
     kubectl apply -f deploy/crds/ph-ee-CustomResourceDefinition.yaml
+    kubectl apply -f deploy/crds/ph-ee-PaymentHubStackDefinition.yaml
     echo -e "${GREEN}CRD applied successfully.${NC}"
 
     echo -e "${BLUE}Deploying the operator...${NC}"
@@ -100,7 +103,7 @@ deploy_operator() {
     echo -e "${GREEN}Operator deployed successfully.${NC}"
 
     echo -e "${BLUE}Applying CR...${NC}"
-    kubectl apply -f deploy/cr/ph-ee-CustomResource.yaml
+    kubectl apply -f $CR_FILE
     echo -e "${GREEN}CR applied successfully.${NC}"
 
     # 8. Post-Deployment Verification
@@ -124,7 +127,7 @@ cleanup_operator() {
     echo -e "${YELLOW}${BOLD}Starting Cleanup...${NC}"
 
     echo -e "${BLUE}Deleting CR...${NC}"
-    kubectl delete -f deploy/cr/ph-ee-CustomResource.yaml || { echo -e "${RED}Failed to delete CR. Exiting.${NC}"; }
+    kubectl delete -f $CR_FILE || { echo -e "${RED}Failed to delete CR. Exiting.${NC}"; }
     echo -e "${GREEN}CR deleted successfully.${NC}"
 
     echo -e "${BLUE}Deleting operator...${NC}"
@@ -132,6 +135,7 @@ cleanup_operator() {
     echo -e "${GREEN}Operator deleted successfully.${NC}"
 
     echo -e "${BLUE}Deleting CRD...${NC}"
+    kubectl delete -f deploy/crds/ph-ee-PaymentHubStackDefinition.yaml || { echo -e "${RED}Failed to delete CRD. Exiting.${NC}"; }
     kubectl delete -f deploy/crds/ph-ee-CustomResourceDefinition.yaml || { echo -e "${RED}Failed to delete CRD. Exiting.${NC}"; }
     echo -e "${GREEN}CRD deleted successfully.${NC}"
 
@@ -159,7 +163,7 @@ update_cr () {
     echo -e "${NC}"
 
     echo -e "${BLUE}Updating CR...${NC}"
-    kubectl apply -f deploy/cr/ph-ee-CustomResource.yaml
+    kubectl apply -f $CR_FILE
     echo -e "${GREEN}CR applied successfully.${NC}"
 
 }
@@ -0,0 +1,56 @@
+package com.paymenthub;
+
+import com.paymenthub.benchmark.SampleResources;
+import com.paymenthub.customresource.PaymentHubDeployment;
+import com.paymenthub.utils.FingerprintUtil;
+import io.fabric8.kubernetes.api.model.apps.Deployment;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures rendering the Deployment of a custom resource, the largest object built on every reconcile, with and
+ * without computing its desired-state fingerprint.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class DeploymentRenderingBenchmark {
+
+    @Param({"message-gateway", "ph-ee-connector-channel", "ph-ee-connector-bulk", "ph-ee-operations-web"})
+    public String customResource;
+
+    private PaymentHubDeployment resource;
+    private PaymentHubDeploymentController controller;
+
+    @Setup
+    public void setUp() {
+        resource = SampleResources.load(customResource);
+        // Rendering never touches the API server, so no client is needed
+        controller = PaymentHubDeploymentController.builder(null).build();
+    }
+
+    @Benchmark
+    public Deployment deployment() {
+        return controller.createDeployment(resource);
+    }
+
+    @Benchmark
+    public Deployment fingerprintedDeployment() {
+        return FingerprintUtil.addFingerprint(controller.createDeployment(resource));
+    }
+}
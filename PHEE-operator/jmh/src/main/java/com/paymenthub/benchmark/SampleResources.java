@@ -0,0 +1,79 @@
+package com.paymenthub.benchmark;
+
+import com.paymenthub.customresource.PaymentHubDeployment;
+import io.fabric8.kubernetes.client.utils.Serialization;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Loads the sample custom resources from {@code deploy/cr/ph-ee-CustomResource.yaml}, which the benchmark build copies
+ * onto the classpath, so the benchmarks render the same objects a real Payment Hub installation does.
+ */
+public final class SampleResources {
+
+    /**
+     * Classpath location of the sample custom resources.
+     */
+    public static final String RESOURCE = "/ph-ee-CustomResource.yaml";
+
+    // ResourceUtils logs through java.util.logging at INFO on every render; keep a reference so the level sticks
+    private static final Logger JUL_LOGGER = Logger.getLogger("com.paymenthub");
+
+    static {
+        JUL_LOGGER.setLevel(Level.WARNING);
+    }
+
+    private SampleResources() {
+    }
+
+    /**
+     * Reads every custom resource in the sample file.
+     *
+     * @return The custom resources keyed by name, in file order.
+     */
+    public static Map<String, PaymentHubDeployment> load() {
+        String yaml;
+        try (InputStream in = SampleResources.class.getResourceAsStream(RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException(RESOURCE + " is not on the classpath.");
+            }
+            yaml = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read " + RESOURCE, e);
+        }
+
+        Map<String, PaymentHubDeployment> resources = new LinkedHashMap<>();
+        for (String document : yaml.split("(?m)^---\\s*$")) {
+            if (document.isBlank()) {
+                continue;
+            }
+            PaymentHubDeployment resource = Serialization.unmarshal(document, PaymentHubDeployment.class);
+            // Owner references carry the UID the API server would have assigned
+            resource.getMetadata().setUid(UUID.nameUUIDFromBytes(
+                    resource.getMetadata().getName().getBytes(StandardCharsets.UTF_8)).toString());
+            resources.put(resource.getMetadata().getName(), resource);
+        }
+        return resources;
+    }
+
+    /**
+     * Reads one custom resource from the sample file.
+     *
+     * @param name The name of the custom resource.
+     * @return The custom resource.
+     */
+    public static PaymentHubDeployment load(String name) {
+        PaymentHubDeployment resource = load().get(name);
+        if (resource == null) {
+            throw new IllegalArgumentException("No custom resource named " + name + " in " + RESOURCE);
+        }
+        return resource;
+    }
+}
@@ -0,0 +1,323 @@
+package com.paymenthub.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.paymenthub.PaymentHubDeploymentController;
+import com.paymenthub.customresource.PaymentHubDeployment;
+import com.paymenthub.customresource.PaymentHubDeploymentStatus;
+import com.paymenthub.utils.ApiCallMetricsInterceptor;
+import com.paymenthub.utils.HttpTransportUtil;
+import com.paymenthub.utils.OperatorMetrics;
+import io.fabric8.kubernetes.api.model.NamespaceBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.base.CustomResourceDefinitionContext;
+import io.fabric8.kubernetes.client.server.mock.KubernetesCrudDispatcher;
+import io.fabric8.kubernetes.client.server.mock.KubernetesMockServer;
+import io.fabric8.mockwebserver.Context;
+import io.javaoperatorsdk.operator.Operator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import okhttp3.mockwebserver.MockWebServer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Macro-benchmark measuring how the operator scales with the number of custom resources it manages.
+ *
+ * For each size, an in-process fabric8 mock API server in CRUD mode is loaded with synthetic environments, each a
+ * namespace holding the {@value #ENVIRONMENT_SIZE} custom resources of {@code deploy/cr}, and the real
+ * {@link PaymentHubDeploymentController} is started against it. The run reports the time until every custom resource
+ * reports its generation as observed, the API requests the operator sent per custom resource and their mean latency,
+ * the peak heap, and the CPU used once the operator is idle. Results are written as JSON so the scaling curve can be compared across releases.
+ *
+ * The mock API server runs in the same JVM, so the heap and CPU figures include it; they are meant for comparing runs
+ * of this harness, not as absolute sizing of a production operator.
+ *
+ * Usage: {@code java -cp jmh/target/benchmarks.jar com.paymenthub.benchmark.ScaleBenchmark [options]}
+ * <ul>
+ *   <li>{@code --sizes=10,100,1000,10000} numbers of custom resources to run with</li>
+ *   <li>{@code --steady-state-seconds=30} how long to sample CPU and API requests after convergence</li>
+ *   <li>{@code --timeout-seconds=1800} how long to wait for convergence of one size</li>
+ *   <li>{@code --output=target/scale-report.json} where to write the report</li>
+ *   <li>{@code --server-side-apply=false} whether the operator writes dependents with server-side apply; the CRUD
+ *   mock server cannot create objects through an apply patch, so this is only useful against a real API server</li>
+ *   <li>{@code --transport=okhttp} the HTTP transport of the operator's client: okhttp, jdk or vertx</li>
+ * </ul>
+ */
+public class ScaleBenchmark {
+
+    /**
+     * Number of custom resources in one synthetic environment, as in {@code deploy/cr}.
+     */
+    public static final int ENVIRONMENT_SIZE = 16;
+
+    private static final String API_REQUESTS_METER = "phee.operator.api.requests";
+    private static final String API_REQUEST_DURATION_METER = "phee.operator.api.request.duration";
+    private static final String OPERATOR_POM_PROPERTIES = "/META-INF/maven/gazelle.mifos.io/ph-ee-operator/pom.properties";
+
+    // The mock web server logs every request through java.util.logging; keep a reference so the level sticks
+    private static final Logger MOCK_SERVER_LOGGER = Logger.getLogger("okhttp3.mockwebserver");
+
+    static {
+        // The operator logs every reconcile, which would dominate the run with thousands of custom resources
+        if (System.getProperty("org.slf4j.simpleLogger.defaultLogLevel") == null) {
+            System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "error");
+        }
+        MOCK_SERVER_LOGGER.setLevel(Level.WARNING);
+    }
+
+    /**
+     * Result of running the operator against one number of custom resources.
+     */
+    public static class Result {
+        public int customResources;
+        public int environments;
+        public boolean converged;
+        public long timeToConvergeMillis;
+        public long apiRequests;
+        public double apiRequestsPerCustomResource;
+        public Map<String, Long> apiRequestsByVerb = new LinkedHashMap<>();
+        public double apiLatencyMeanMillis;
+        public long peakHeapBytes;
+        public double steadyStateCpuCores;
+        public double steadyStateApiRequestsPerSecond;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        List<Integer> sizes = Arrays.stream(options.getOrDefault("sizes", "10,100,1000,10000").split(","))
+                .map(String::trim)
+                .map(Integer::parseInt)
+                .collect(Collectors.toList());
+        long steadyStateSeconds = Long.parseLong(options.getOrDefault("steady-state-seconds", "30"));
+        long timeoutSeconds = Long.parseLong(options.getOrDefault("timeout-seconds", "1800"));
+        File output = new File(options.getOrDefault("output", "target/scale-report.json"));
+        boolean serverSideApply = Boolean.parseBoolean(options.getOrDefault("server-side-apply", "false"));
+        String transport = options.getOrDefault("transport", HttpTransportUtil.OKHTTP);
+
+        List<Result> results = new ArrayList<>();
+        for (int size : sizes) {
+            System.out.printf("Running with %d custom resources...%n", size);
+            Result result = run(size, serverSideApply, transport, steadyStateSeconds, timeoutSeconds);
+            results.add(result);
+            System.out.printf("%6d CRs: converged=%s in %d ms, %.1f API requests/CR at %.1f ms, peak heap %d MiB, %.3f CPU cores idle%n",
+                    result.customResources, result.converged, result.timeToConvergeMillis, result.apiRequestsPerCustomResource,
+                    result.apiLatencyMeanMillis, result.peakHeapBytes / (1024 * 1024), result.steadyStateCpuCores);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("operatorVersion", operatorVersion());
+        report.put("javaVersion", System.getProperty("java.version"));
+        report.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        report.put("maxHeapBytes", Runtime.getRuntime().maxMemory());
+        report.put("environmentSize", ENVIRONMENT_SIZE);
+        report.put("serverSideApply", serverSideApply);
+        report.put("transport", transport);
+        report.put("results", results);
+        writeReport(output, report);
+        System.out.println("Report written to " + output.getAbsolutePath());
+    }
+
+    private static Result run(int size, boolean serverSideApply, String transport, long steadyStateSeconds,
+                              long timeoutSeconds) throws Exception {
+        Result result = new Result();
+        result.customResources = size;
+        result.environments = (size + ENVIRONMENT_SIZE - 1) / ENVIRONMENT_SIZE;
+
+        KubernetesMockServer server = new KubernetesMockServer(new Context(), new MockWebServer(), new HashMap<>(),
+                new KubernetesCrudDispatcher(), false);
+        server.init();
+        server.expectCustomResource(CustomResourceDefinitionContext.fromCustomResourceType(PaymentHubDeployment.class));
+
+        OperatorMetrics metrics = OperatorMetrics.prometheus();
+        KubernetesClient harnessClient = server.createClient();
+        KubernetesClient operatorClient = server.createClient(builder -> builder
+                .withHttpClientFactory(HttpTransportUtil.newHttpClientFactory(transport))
+                .withHttpClientBuilderConsumer(httpClient -> httpClient.addOrReplaceInterceptor(ApiCallMetricsInterceptor.NAME,
+                        new ApiCallMetricsInterceptor(metrics, transport))));
+        Operator operator = null;
+        try {
+            createCustomResources(harnessClient, size);
+
+            System.gc();
+            resetPeakHeap();
+            operator = new Operator(operatorClient, o -> o.withCloseClientOnStop(false));
+            operator.register(PaymentHubDeploymentController.builder(operatorClient)
+                    .withServerSideApply(serverSideApply)
+                    .withBulkDeletion(true)
+                    .withOperatorMetrics(metrics)
+                    .build(), o -> o.watchingAllNamespaces());
+
+            long start = System.nanoTime();
+            operator.start();
+            result.converged = awaitConvergence(harnessClient, server, size, start + TimeUnit.SECONDS.toNanos(timeoutSeconds));
+            result.timeToConvergeMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            result.peakHeapBytes = peakHeap();
+
+            result.apiRequests = apiRequests(metrics, null);
+            result.apiRequestsPerCustomResource = (double) result.apiRequests / size;
+            for (String verb : Arrays.asList("get", "list", "watch", "create", "update", "patch", "apply", "delete", "deletecollection")) {
+                long count = apiRequests(metrics, verb);
+                if (count > 0) {
+                    result.apiRequestsByVerb.put(verb, count);
+                }
+            }
+            result.apiLatencyMeanMillis = apiLatencyMeanMillis(metrics);
+
+            // Steady state: nothing changes any more, so this is the cost of merely keeping the custom resources managed
+            long cpuBefore = processCpuNanos();
+            long wallBefore = System.nanoTime();
+            TimeUnit.SECONDS.sleep(steadyStateSeconds);
+            long wall = System.nanoTime() - wallBefore;
+            result.steadyStateCpuCores = (double) (processCpuNanos() - cpuBefore) / wall;
+            result.steadyStateApiRequestsPerSecond = (apiRequests(metrics, null) - result.apiRequests)
+                    / (wall / (double) TimeUnit.SECONDS.toNanos(1));
+            return result;
+        } finally {
+            if (operator != null) {
+                operator.stop();
+            }
+            operatorClient.close();
+            harnessClient.close();
+            metrics.close();
+            server.destroy();
+        }
+    }
+
+    private static void createCustomResources(KubernetesClient client, int size) {
+        int created = 0;
+        for (int environment = 0; created < size; environment++) {
+            String namespace = String.format("paymenthub-%05d", environment);
+            client.namespaces().resource(new NamespaceBuilder().withNewMetadata().withName(namespace).endMetadata().build()).create();
+            for (PaymentHubDeployment resource : SampleResources.load().values()) {
+                if (created == size) {
+                    break;
+                }
+                resource.getMetadata().setNamespace(namespace);
+                resource.getMetadata().setUid(null);
+                client.resource(resource).create();
+                created++;
+            }
+        }
+    }
+
+    /**
+     * Waits until every custom resource reports its current generation as observed without an error.
+     */
+    private static boolean awaitConvergence(KubernetesClient client, KubernetesMockServer server, int size, long deadline)
+            throws InterruptedException {
+        while (System.nanoTime() < deadline) {
+            drainRecordedRequests(server);
+            long converged = client.resources(PaymentHubDeployment.class).inAnyNamespace().list().getItems().stream()
+                    .filter(ScaleBenchmark::isConverged)
+                    .count();
+            if (converged == size) {
+                return true;
+            }
+            TimeUnit.MILLISECONDS.sleep(200);
+        }
+        return false;
+    }
+
+    private static boolean isConverged(PaymentHubDeployment resource) {
+        PaymentHubDeploymentStatus status = resource.getStatus();
+        return status != null
+                && Objects.equals(status.getObservedGeneration(), resource.getMetadata().getGeneration())
+                && (status.getErrorMessage() == null || !status.getErrorMessage().startsWith("Error"));
+    }
+
+    // The mock web server keeps every request it served until taken, which would grow the heap with the run length
+    private static void drainRecordedRequests(KubernetesMockServer server) throws InterruptedException {
+        while (server.takeRequest(0, TimeUnit.MILLISECONDS) != null) {
+            // discard
+        }
+    }
+
+    private static long apiRequests(OperatorMetrics metrics, String verb) {
+        return (long) metrics.getRegistry().find(API_REQUESTS_METER).counters().stream()
+                .filter(counter -> verb == null || verb.equals(counter.getId().getTag("verb")))
+                .mapToDouble(Counter::count)
+                .sum();
+    }
+
+    // Watches are excluded, their latency is only the time until the server starts streaming events
+    private static double apiLatencyMeanMillis(OperatorMetrics metrics) {
+        long count = 0;
+        double totalMillis = 0;
+        for (Timer timer : metrics.getRegistry().find(API_REQUEST_DURATION_METER).timers()) {
+            if (!"watch".equals(timer.getId().getTag("verb"))) {
+                count += timer.count();
+                totalMillis += timer.totalTime(TimeUnit.MILLISECONDS);
+            }
+        }
+        return count == 0 ? 0 : totalMillis / count;
+    }
+
+    private static void resetPeakHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    private static long peakHeap() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                .sum();
+    }
+
+    private static long processCpuNanos() {
+        return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean()).getProcessCpuTime();
+    }
+
+    private static String operatorVersion() throws IOException {
+        try (InputStream in = ScaleBenchmark.class.getResourceAsStream(OPERATOR_POM_PROPERTIES)) {
+            if (in == null) {
+                return null;
+            }
+            Properties properties = new Properties();
+            properties.load(in);
+            return properties.getProperty("version");
+        }
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return options;
+    }
+
+    private static void writeReport(File output, Map<String, Object> report) throws IOException {
+        File parent = output.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Cannot create " + parent);
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output, report);
+    }
+}
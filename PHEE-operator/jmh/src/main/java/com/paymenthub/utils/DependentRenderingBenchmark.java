@@ -0,0 +1,103 @@
+package com.paymenthub.utils;
+
+import com.paymenthub.benchmark.SampleResources;
+import com.paymenthub.customresource.PaymentHubDeployment;
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.EnvVar;
+import io.fabric8.kubernetes.api.model.ResourceRequirements;
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.networking.v1.Ingress;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures rendering each dependent of a custom resource other than the Deployment: the container environment,
+ * resource requirements and probes, the Services and Ingress, the RBAC objects, the Secret and the ConfigMap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class DependentRenderingBenchmark {
+
+    @Param({"message-gateway", "ph-ee-connector-channel", "ph-ee-connector-bulk", "ph-ee-operations-web"})
+    public String customResource;
+
+    private PaymentHubDeployment resource;
+    private String name;
+    private NetworkingUtils networkingUtils;
+    private RbacUtils rbacUtils;
+    private ResourceUtils resourceUtils;
+
+    @Setup
+    public void setUp() {
+        resource = SampleResources.load(customResource);
+        name = resource.getMetadata().getName();
+        // Rendering never touches the API server, so no client is needed
+        networkingUtils = new NetworkingUtils(null, true);
+        rbacUtils = new RbacUtils(null, true);
+        resourceUtils = new ResourceUtils(null, true);
+    }
+
+    @Benchmark
+    public List<EnvVar> environmentVariables() {
+        return DeploymentUtils.createEnvironmentVariables(resource);
+    }
+
+    @Benchmark
+    public ResourceRequirements resourceRequirements() {
+        return DeploymentUtils.createResourceRequirements(resource);
+    }
+
+    @Benchmark
+    public void probes(Blackhole blackhole) {
+        blackhole.consume(DeploymentUtils.createProbe(resource, "liveness"));
+        blackhole.consume(DeploymentUtils.createProbe(resource, "readiness"));
+    }
+
+    @Benchmark
+    public List<Service> services() {
+        return networkingUtils.createServices(resource);
+    }
+
+    @Benchmark
+    public Ingress ingress() {
+        return networkingUtils.createIngress(resource, name + "-ingress");
+    }
+
+    @Benchmark
+    public void rbac(Blackhole blackhole) {
+        blackhole.consume(rbacUtils.createServiceAccount(resource, name + "-sa"));
+        blackhole.consume(rbacUtils.createRole(resource, name + "-role"));
+        blackhole.consume(rbacUtils.createRoleBinding(resource, name + "-rolebinding"));
+        blackhole.consume(rbacUtils.createClusterRole(resource, RbacUtils.clusterRoleName(resource)));
+        blackhole.consume(rbacUtils.createClusterRoleBinding(resource, RbacUtils.clusterRoleBindingName(resource)));
+    }
+
+    @Benchmark
+    public Secret secret() {
+        return resourceUtils.createSecret(resource, name + "-secret");
+    }
+
+    @Benchmark
+    public ConfigMap configMap() {
+        return resourceUtils.createConfigMap(resource, name);
+    }
+}
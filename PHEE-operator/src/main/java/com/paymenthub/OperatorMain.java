@@ -3,11 +3,33 @@ package com.paymenthub;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.KubernetesClientBuilder;
 import io.javaoperatorsdk.operator.Operator;
-import io.javaoperatorsdk.operator.api.reconciler.Reconciler;
+import io.javaoperatorsdk.operator.RegisteredController;
+import io.javaoperatorsdk.operator.api.config.ConfigurationService;
+import io.javaoperatorsdk.operator.api.config.LeaderElectionConfiguration;
+import io.javaoperatorsdk.operator.api.config.LeaderElectionConfigurationBuilder;
 import com.paymenthub.PaymentHubDeploymentController;
+import com.paymenthub.PaymentHubStackController;
+import com.paymenthub.customresource.PaymentHubDeployment;
+import com.paymenthub.customresource.PaymentHubStack;
+import com.paymenthub.utils.ApiCallBudget;
+import com.paymenthub.utils.ApiCallMetricsInterceptor;
+import com.paymenthub.utils.ConfigUtil;
+import com.paymenthub.utils.DependencyGate;
+import com.paymenthub.utils.ExecutorUtil;
+import com.paymenthub.utils.HttpTransportUtil;
+import com.paymenthub.utils.NamespaceWatcher;
+import com.paymenthub.utils.OperatorMetrics;
+import com.paymenthub.utils.ReconcileRetryPolicy;
+import com.paymenthub.utils.ReconcileThrottle;
+import com.paymenthub.utils.ShardMembership;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Set;
+import java.util.UUID;
+
 /**
  * Main class to start the Payment Hub EE Operator.
  * Sets up the Kubernetes client, initializes the operator, and starts the reconciliation process.
@@ -25,21 +47,127 @@ public class OperatorMain {
     public static void main(String[] args) {
         log.info("Starting the Payment Hub EE Operator!");
 
-        // Initialize the Kubernetes client using the KubernetesClientBuilder
-        KubernetesClient client = new KubernetesClientBuilder().build(); // Moved outside try block
-        Operator operator = new Operator(client, o -> o.withStopOnInformerErrorDuringStartup(false));
+        // Metrics are collected from the start, so the API requests made while the informers sync are counted too
+        boolean metricsEnabled = ConfigUtil.getBoolean("METRICS_ENABLED", true);
+        OperatorMetrics metrics = metricsEnabled ? OperatorMetrics.prometheus() : OperatorMetrics.disabled();
+
+        // Initialize the Kubernetes client using the KubernetesClientBuilder, on the configured HTTP transport. The
+        // interceptor is installed even with metrics disabled, as it also feeds the per-reconcile API call accounting
+        // checked against the budget
+        String httpTransport = HttpTransportUtil.getTransport();
+        KubernetesClient client = new KubernetesClientBuilder()
+                .withHttpClientFactory(HttpTransportUtil.newHttpClientFactory(httpTransport))
+                .withHttpClientBuilderConsumer(builder -> builder.addOrReplaceInterceptor(ApiCallMetricsInterceptor.NAME,
+                        new ApiCallMetricsInterceptor(metrics, httpTransport)))
+                .build(); // Moved outside try block
+        boolean virtualThreads = ConfigUtil.getBoolean("VIRTUAL_THREADS_ENABLED", false);
+        int maxConcurrentReconciliations = ConfigUtil.getInt("MAX_CONCURRENT_RECONCILIATIONS", 0);
+        boolean sharding = ConfigUtil.getBoolean("SHARDING_ENABLED", false);
+        boolean leaderElection = ConfigUtil.getBoolean("LEADER_ELECTION_ENABLED", false);
+        if (sharding && leaderElection) {
+            // All shards reconcile at the same time, so a single leader would leave every other shard idle
+            log.warn("SHARDING_ENABLED and LEADER_ELECTION_ENABLED are mutually exclusive, disabling leader election.");
+            leaderElection = false;
+        }
+        boolean useLeaderElection = leaderElection;
+        Operator operator = new Operator(client, o -> {
+            o.withStopOnInformerErrorDuringStartup(false);
+            if (metricsEnabled) {
+                o.withMetrics(metrics.controllerMetrics());
+            }
+            if (useLeaderElection) {
+                // Every replica starts its informers, but only the lease holder reconciles
+                o.withLeaderElectionConfiguration(leaderElectionConfiguration());
+            }
+            if (maxConcurrentReconciliations > 0) {
+                // Caps how many custom resources are reconciled at the same time
+                o.withConcurrentReconciliationThreads(maxConcurrentReconciliations);
+                o.withMinConcurrentReconciliationThreads(Math.min(maxConcurrentReconciliations, 10));
+            }
+            // Every reconcile fans its steps out on the workflow executor, so it is sized with the reconcile pool rather
+            // than left at the framework default, which would queue steps behind each other under load
+            o.withConcurrentWorkflowExecutorThreads(workflowExecutorThreads(maxConcurrentReconciliations));
+            if (virtualThreads) {
+                // Run reconcilers and the workflow executor on virtual threads instead of bounded platform-thread pools
+                ExecutorUtil.newVirtualThreadExecutor(maxConcurrentReconciliations).ifPresent(o::withExecutorService);
+                ExecutorUtil.newVirtualThreadExecutor(workflowExecutorThreads(maxConcurrentReconciliations))
+                        .ifPresent(o::withWorkflowExecutorService);
+            }
+        });
         log.info("Operator instance created.");
 
+        ShardMembership shardMembership = sharding ? shardMembership(client) : ShardMembership.disabled();
+        NamespaceWatcher namespaceWatcher = null;
+
         try {
             // Create and register the reconciler for the operator
-            Reconciler reconciler = new PaymentHubDeploymentController(client); // Pass client to the controller
-            operator.register(reconciler);
-            log.info("Reconciler {} registered.", reconciler.getClass().getSimpleName());
+            boolean serverSideApply = ConfigUtil.getBoolean("SERVER_SIDE_APPLY", true);
+            boolean bulkDeletion = ConfigUtil.getBoolean("BULK_DELETION", true);
+            ReconcileThrottle reconcileThrottle = ReconcileThrottle.fromEnvironment();
+            metrics.getRegistry().gauge("phee.operator.reconcile.throttled", reconcileThrottle, ReconcileThrottle::getQueueDepth);
+            PaymentHubDeploymentController reconciler = PaymentHubDeploymentController.builder(client) // Pass client to the controller
+                    .withServerSideApply(serverSideApply)
+                    .withReconcileThrottle(reconcileThrottle)
+                    .withBulkDeletion(bulkDeletion)
+                    .withShardMembership(shardMembership)
+                    .withOperatorMetrics(metrics)
+                    .withApiCallBudget(ApiCallBudget.fromEnvironment())
+                    .withRetryPolicy(ReconcileRetryPolicy.fromEnvironment())
+                    .withDependencyGate(DependencyGate.fromEnvironment())
+                    .build();
+
+            // A namespace label selector takes precedence over the WATCH_NAMESPACE list; neither means all namespaces
+            String namespaceSelector = ConfigUtil.getString("WATCH_NAMESPACE_SELECTOR", null);
+            Set<String> watchedNamespaces;
+            if (namespaceSelector != null) {
+                namespaceWatcher = new NamespaceWatcher(client, namespaceSelector);
+                watchedNamespaces = namespaceWatcher.listNamespaces();
+                if (watchedNamespaces.isEmpty()) {
+                    watchedNamespaces = Collections.singleton(ConfigUtil.getString("POD_NAMESPACE", client.getNamespace()));
+                    log.warn("No namespace matches {}, watching {} until one does.", namespaceSelector, watchedNamespaces);
+                }
+            } else {
+                watchedNamespaces = NamespaceWatcher.parseNamespaces(ConfigUtil.getString("WATCH_NAMESPACE", null));
+            }
+            Set<String> initialNamespaces = watchedNamespaces;
+            RegisteredController<PaymentHubDeployment> registeredController = operator.register(reconciler, o -> {
+                if (initialNamespaces.isEmpty()) {
+                    o.watchingAllNamespaces();
+                } else {
+                    o.settingNamespaces(initialNamespaces);
+                }
+            });
+            log.info("Reconciler {} registered, watching {}.", reconciler.getClass().getSimpleName(),
+                    initialNamespaces.isEmpty() ? "all namespaces" : initialNamespaces);
+
+            // Stacks roll out their components as PaymentHubDeployments in dependency order, in the same namespaces
+            PaymentHubStackController stackReconciler = new PaymentHubStackController(client, serverSideApply,
+                    shardMembership, ReconcileRetryPolicy.fromEnvironment());
+            RegisteredController<PaymentHubStack> registeredStackController = operator.register(stackReconciler, o -> {
+                if (initialNamespaces.isEmpty()) {
+                    o.watchingAllNamespaces();
+                } else {
+                    o.settingNamespaces(initialNamespaces);
+                }
+            });
+            log.info("Reconciler {} registered.", stackReconciler.getClass().getSimpleName());
+
+            // Join the shard ring before reconciling, and leave it on shutdown so peers take over right away
+            shardMembership.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(shardMembership::stop, "shard-membership-shutdown"));
+
+            // Serve /metrics before starting, so the endpoint is up while the informer caches sync
+            metrics.start(ConfigUtil.getInt("METRICS_PORT", 8080));
 
             // Start the operator
             operator.start();
             log.info("Operator started successfully.");
 
+            // Follow namespaces that start or stop matching the selector once the informers are running
+            if (namespaceWatcher != null) {
+                namespaceWatcher.start(registeredController, registeredStackController);
+            }
+
             // Keep the operator running indefinitely
             Thread.currentThread().join();
         } catch (Exception e) {
@@ -47,7 +175,63 @@ public class OperatorMain {
             log.error("Failed to start the operator due to an error: ", e);
         } finally {
             // Ensure the client is closed when the operator is stopped
+            shardMembership.stop();
+            if (namespaceWatcher != null) {
+                namespaceWatcher.close();
+            }
             client.close();
+            metrics.close();
+        }
+    }
+
+    /**
+     * Sizes the workflow executor so that every concurrent reconcile can run all of its parallel steps at once.
+     * 
+     * @param maxConcurrentReconciliations The configured reconcile concurrency, or 0 for the framework default.
+     * @return The number of workflow executor threads.
+     */
+    private static int workflowExecutorThreads(int maxConcurrentReconciliations) {
+        int reconciliations = maxConcurrentReconciliations > 0 ? maxConcurrentReconciliations
+                : ConfigurationService.DEFAULT_RECONCILIATION_THREADS_NUMBER;
+        return reconciliations * PaymentHubDeploymentController.MAX_PARALLEL_STEPS;
+    }
+
+    /**
+     * Creates the shard membership of this replica, heartbeating a Lease in the operator's namespace.
+     * 
+     * @param client The Kubernetes client used for the membership Leases.
+     * @return The shard membership read from the environment.
+     */
+    private static ShardMembership shardMembership(KubernetesClient client) {
+        String namespace = ConfigUtil.getString("POD_NAMESPACE", client.getNamespace());
+        String identity = ConfigUtil.getString("POD_NAME", UUID.randomUUID().toString());
+        Duration leaseDuration = Duration.ofSeconds(ConfigUtil.getInt("SHARD_LEASE_DURATION_SECONDS", 15));
+        return new ShardMembership(client, namespace, identity, leaseDuration);
+    }
+
+    /**
+     * Builds the Lease-based leader election configuration. Standby replicas keep their informer caches synced and
+     * take over reconciliation as soon as they acquire the lease, which happens at the latest one lease duration after
+     * the leader stopped renewing it.
+     * 
+     * @return The leader election configuration read from the environment.
+     */
+    private static LeaderElectionConfiguration leaderElectionConfiguration() {
+        LeaderElectionConfigurationBuilder builder = LeaderElectionConfigurationBuilder
+                .aLeaderElectionConfiguration(ConfigUtil.getString("LEADER_ELECTION_LEASE_NAME", "ph-ee-operator-lease"))
+                .withLeaseDuration(Duration.ofSeconds(ConfigUtil.getInt("LEADER_ELECTION_LEASE_DURATION_SECONDS", 15)))
+                .withRenewDeadline(Duration.ofSeconds(ConfigUtil.getInt("LEADER_ELECTION_RENEW_DEADLINE_SECONDS", 10)))
+                .withRetryPeriod(Duration.ofSeconds(ConfigUtil.getInt("LEADER_ELECTION_RETRY_PERIOD_SECONDS", 2)));
+
+        // Default to the namespace the operator runs in and to the pod name as identity, both set through the downward API
+        String leaseNamespace = ConfigUtil.getString("LEADER_ELECTION_NAMESPACE", ConfigUtil.getString("POD_NAMESPACE", null));
+        if (leaseNamespace != null) {
+            builder.withLeaseNamespace(leaseNamespace);
+        }
+        String identity = ConfigUtil.getString("POD_NAME", null);
+        if (identity != null) {
+            builder.withIdentity(identity);
         }
+        return builder.build();
     }
 }
@@ -3,16 +3,32 @@ package com.paymenthub;
 // Kubernetes API model imports
 import io.fabric8.kubernetes.api.model.*;  
 import io.fabric8.kubernetes.api.model.apps.*;  
+import io.fabric8.kubernetes.api.model.autoscaling.v2.HorizontalPodAutoscaler;
+import io.fabric8.kubernetes.api.model.discovery.v1.EndpointSlice;
+import io.fabric8.kubernetes.api.model.networking.v1.Ingress;
+import io.fabric8.kubernetes.api.model.rbac.ClusterRole;
+import io.fabric8.kubernetes.api.model.rbac.ClusterRoleBinding;
+import io.fabric8.kubernetes.api.model.rbac.Role;
+import io.fabric8.kubernetes.api.model.rbac.RoleBinding;
  
 // Kubernetes client imports
 import io.fabric8.kubernetes.client.KubernetesClient; 
-import io.fabric8.kubernetes.client.dsl.Resource;  
+import io.fabric8.kubernetes.client.dsl.NonDeletingOperation;
 
 // Operator SDK imports
+import io.javaoperatorsdk.operator.api.config.informer.InformerConfiguration;
+import io.javaoperatorsdk.operator.api.reconciler.Cleaner;
 import io.javaoperatorsdk.operator.api.reconciler.Context;    
 import io.javaoperatorsdk.operator.api.reconciler.ControllerConfiguration;    
+import io.javaoperatorsdk.operator.api.reconciler.DeleteControl;
+import io.javaoperatorsdk.operator.api.reconciler.EventSourceContext;
+import io.javaoperatorsdk.operator.api.reconciler.EventSourceInitializer;
 import io.javaoperatorsdk.operator.api.reconciler.Reconciler;  
 import io.javaoperatorsdk.operator.api.reconciler.UpdateControl;  
+import io.javaoperatorsdk.operator.processing.event.ResourceID;
+import io.javaoperatorsdk.operator.processing.event.source.EventSource;
+import io.javaoperatorsdk.operator.processing.event.source.informer.InformerEventSource;
+import io.javaoperatorsdk.operator.processing.event.source.informer.Mappers;
 
 // Logging imports
 import org.slf4j.Logger;  
@@ -21,25 +37,41 @@ import org.slf4j.LoggerFactory;
 // Custom classes and utils
 import com.paymenthub.customresource.PaymentHubDeploymentSpec; 
 import com.paymenthub.customresource.PaymentHubDeployment;  
+import com.paymenthub.utils.ApiCallAccounting;
+import com.paymenthub.utils.ApiCallBudget;
+import com.paymenthub.utils.ApplyUtil;
+import com.paymenthub.utils.AutoscalingUtils;
 import com.paymenthub.utils.LoggingUtil;  
 import com.paymenthub.utils.StatusUpdateUtil;   
 import com.paymenthub.utils.DeletionUtil;  
+import com.paymenthub.utils.DependencyGate;
+import com.paymenthub.utils.DependencyGraphExecutor;
+import com.paymenthub.utils.DependentStateCache;
 import com.paymenthub.utils.DeploymentUtils;  
+import com.paymenthub.utils.FingerprintUtil;
+import com.paymenthub.utils.InformerCacheUtil;
+import com.paymenthub.utils.OperatorMetrics;
 import com.paymenthub.utils.RbacUtils;  
 import com.paymenthub.utils.ResourceUtils;  
+import com.paymenthub.utils.ShardMembership;
+import com.paymenthub.utils.ShardRebalanceEventSource;
 import com.paymenthub.utils.NetworkingUtils;  
 import com.paymenthub.utils.OwnerReferenceUtils;  
+import com.paymenthub.utils.ReconcileRetryPolicy;
+import com.paymenthub.utils.ReconcileThrottle;
  
 
 // Java utils
+import java.time.Duration;
 import java.time.Instant;  
 import java.util.*;  
 import java.util.stream.Collectors;  
 
 
 
-@ControllerConfiguration
-public class PaymentHubDeploymentController implements Reconciler<PaymentHubDeployment> {
+@ControllerConfiguration(generationAwareEventProcessing = true)
+public class PaymentHubDeploymentController implements Reconciler<PaymentHubDeployment>, EventSourceInitializer<PaymentHubDeployment>,
+        Cleaner<PaymentHubDeployment> {
 
 
     /**
@@ -51,23 +83,159 @@ public class PaymentHubDeploymentController implements Reconciler<PaymentHubDepl
      * - {@code rbacUtils} provides utility methods for handling RBAC (Role-Based Access Control) related operations.
      * - {@code resourceUtils} offers utility methods for creating and managing Kubernetes resources such as ConfigMaps and Secrets.
      * - {@code networkingUtils} includes utility methods for managing networking components like Services and Ingresses.
+     * - {@code autoscalingUtils} manages the HorizontalPodAutoscaler that scales the Deployment when autoscaling is enabled.
+     * - {@code serverSideApply} selects whether dependents are written with server-side apply or with get-then-create/patch.
+     * - {@code reconcileThrottle} bounds the global and per-namespace rate at which reconciliations start.
+     * - {@code shardMembership} decides which custom resources this replica reconciles when the operator is sharded.
+     * - {@code bulkDeletion} selects whether disabled dependents are removed with label-selected collection DELETEs.
+     * - {@code operatorMetrics} records the duration of each reconcile phase and the API traffic of each reconcile.
+     * - {@code apiCallBudget} bounds the API traffic of a reconcile before its summary is logged as a warning.
+     * - {@code retryPolicy} decides when a failed reconcile is retried, depending on why it failed.
+     * - {@code dependencyGate} decides whether the dependencies a Deployment waits for before scaling up are ready.
+     * - {@code dependentStateCache} remembers the dependents seen after the last successful reconcile of each resource.
      */
     private static final Logger log = LoggerFactory.getLogger(PaymentHubDeploymentController.class);
     private final KubernetesClient kubernetesClient;
     private final RbacUtils rbacUtils;
     private final ResourceUtils resourceUtils;
     private final NetworkingUtils networkingUtils;
+    private final AutoscalingUtils autoscalingUtils;
+    private final boolean serverSideApply;
+    private final ReconcileThrottle reconcileThrottle;
+    private final boolean bulkDeletion;
+    private final ShardMembership shardMembership;
+    private final OperatorMetrics operatorMetrics;
+    private final ApiCallBudget apiCallBudget;
+    private final ReconcileRetryPolicy retryPolicy;
+    private final DependencyGate dependencyGate;
+    private final DependentStateCache dependentStateCache = new DependentStateCache(Arrays.asList(
+            Deployment.class, Service.class, Ingress.class, Secret.class, ConfigMap.class, ServiceAccount.class,
+            Role.class, RoleBinding.class, ClusterRole.class, ClusterRoleBinding.class, HorizontalPodAutoscaler.class));
 
     /**
-     * Constructor for initializing the PaymentHubDeploymentController with the necessary clients and utilities.
+     * The most reconcile steps of one custom resource that can run at the same time: the five RBAC objects, the
+     * Secret, the ConfigMap, the Services, the Ingress and, when autoscaling is disabled, the HorizontalPodAutoscaler
+     * deletion. Used to size the workflow executor the steps run on.
+     */
+    static final int MAX_PARALLEL_STEPS = 10;
+
+    // Namespaced kinds the operator creates for a custom resource, all labelled with the owner UID label they are deleted by
+    private static final List<Class<? extends HasMetadata>> NAMESPACED_DEPENDENT_TYPES = Arrays.asList(
+            Deployment.class, Service.class, Ingress.class, Secret.class, ConfigMap.class, ServiceAccount.class,
+            Role.class, RoleBinding.class, HorizontalPodAutoscaler.class);
+
+    /**
+     * Creates a builder for a PaymentHubDeploymentController. Every option not set on the builder keeps its default:
+     * dependents are written with get-then-create/patch and deleted one by one, reconciliations are neither throttled
+     * nor sharded, no metrics are recorded, the API traffic of a reconcile is not bounded, and failed reconciles and
+     * dependency checks use the default delays.
      * 
      * @param kubernetesClient The Kubernetes client used for interacting with the Kubernetes API server.
+     * @return The builder.
      */
-    public PaymentHubDeploymentController(KubernetesClient kubernetesClient) {
-        this.kubernetesClient = kubernetesClient;
-        this.rbacUtils = new RbacUtils(kubernetesClient);
-        this.resourceUtils = new ResourceUtils(kubernetesClient);
-        this.networkingUtils = new NetworkingUtils(kubernetesClient);
+    public static Builder builder(KubernetesClient kubernetesClient) {
+        return new Builder(kubernetesClient);
+    }
+
+    /**
+     * Constructor for initializing the PaymentHubDeploymentController with the options collected by a builder.
+     * 
+     * @param builder The builder holding the client and tuning options.
+     */
+    private PaymentHubDeploymentController(Builder builder) {
+        this.kubernetesClient = builder.kubernetesClient;
+        this.shardMembership = builder.shardMembership;
+        this.operatorMetrics = builder.operatorMetrics;
+        this.apiCallBudget = builder.apiCallBudget;
+        this.retryPolicy = builder.retryPolicy;
+        this.dependencyGate = builder.dependencyGate;
+        this.bulkDeletion = builder.bulkDeletion;
+        this.serverSideApply = builder.serverSideApply;
+        this.reconcileThrottle = builder.reconcileThrottle;
+        this.rbacUtils = new RbacUtils(kubernetesClient, serverSideApply);
+        this.resourceUtils = new ResourceUtils(kubernetesClient, serverSideApply);
+        this.networkingUtils = new NetworkingUtils(kubernetesClient, serverSideApply);
+        this.autoscalingUtils = new AutoscalingUtils(kubernetesClient, serverSideApply);
+
+        // Every shard throttles only its own reconciliations, so each takes its share of the global rate limit
+        reconcileThrottle.setShardCount(shardMembership.getMembers().size());
+        shardMembership.addListener(() -> reconcileThrottle.setShardCount(shardMembership.getMembers().size()));
+    }
+
+    /**
+     * Registers informer-backed event sources for every secondary resource managed by this controller. Existence
+     * checks and comparisons during reconciliation are then served from these caches instead of live GETs, and
+     * changes to the secondary resources trigger a reconciliation of the owning custom resource.
+     *
+     * @param context The event source context providing the controller configuration and Kubernetes client.
+     * @return The named event sources to register with the controller.
+     */
+    @Override
+    public Map<String, EventSource> prepareEventSources(EventSourceContext<PaymentHubDeployment> context) {
+        // Services are looked up and pruned per owner, so index them by owner UID instead of scanning the namespace
+        InformerEventSource<Service, PaymentHubDeployment> serviceEventSource = namespacedEventSource(Service.class, context);
+        serviceEventSource.addIndexers(Collections.singletonMap(InformerCacheUtil.OWNER_UID_INDEX, InformerCacheUtil::ownerUids));
+
+        // EndpointSlices of the Services custom resources depend on are not created by the operator, so they are watched
+        // without the managed-by selector and mapped to the waiting custom resources through an index on the primary cache
+        context.getPrimaryCache().addIndexers(Collections.singletonMap(DependencyGate.SERVICE_INDEX,
+                DependencyGate::dependencyServiceKeys));
+        InformerEventSource<EndpointSlice, PaymentHubDeployment> endpointSliceEventSource = new InformerEventSource<>(
+                InformerConfiguration.from(EndpointSlice.class, context)
+                        .followNamespaceChanges(true)
+                        .withSecondaryToPrimaryMapper(endpointSlice -> DependencyGate.endpointSliceServiceKeys(endpointSlice).stream()
+                                .flatMap(key -> context.getPrimaryCache().byIndex(DependencyGate.SERVICE_INDEX, key).stream())
+                                .map(ResourceID::fromResource)
+                                .collect(Collectors.toSet()))
+                        .build(), context);
+        endpointSliceEventSource.addIndexers(Collections.singletonMap(DependencyGate.SERVICE_INDEX,
+                DependencyGate::endpointSliceServiceKeys));
+
+        // Custom resources that moved to another shard raise no event here, so they are forgotten when the members change
+        shardMembership.addListener(() -> context.getPrimaryCache().keys()
+                .filter(resourceID -> !shardMembership.owns(resourceID))
+                .forEach(this::forgetResource));
+
+        return EventSourceInitializer.nameEventSources(
+                new ShardRebalanceEventSource(shardMembership, context.getPrimaryCache()),
+                namespacedEventSource(Deployment.class, context),
+                serviceEventSource,
+                namespacedEventSource(Ingress.class, context),
+                namespacedEventSource(Secret.class, context),
+                namespacedEventSource(ConfigMap.class, context),
+                namespacedEventSource(ServiceAccount.class, context),
+                namespacedEventSource(Role.class, context),
+                namespacedEventSource(RoleBinding.class, context),
+                namespacedEventSource(HorizontalPodAutoscaler.class, context),
+                clusterScopedEventSource(ClusterRole.class, context),
+                clusterScopedEventSource(ClusterRoleBinding.class, context),
+                endpointSliceEventSource);
+    }
+
+    /**
+     * Creates an informer event source for a namespaced secondary resource, watching the same namespaces as the
+     * controller, including later changes to them, and mapping events back to the owning custom resource through its
+     * owner reference.
+     */
+    private <R extends HasMetadata> InformerEventSource<R, PaymentHubDeployment> namespacedEventSource(
+            Class<R> resourceType, EventSourceContext<PaymentHubDeployment> context) {
+        return new InformerEventSource<>(InformerConfiguration.from(resourceType, context)
+                .followNamespaceChanges(true)
+                .withLabelSelector(InformerCacheUtil.MANAGED_BY_SELECTOR)
+                .withSecondaryToPrimaryMapper(Mappers.fromOwnerReference())
+                .build(), context);
+    }
+
+    /**
+     * Creates an informer event source for a cluster-scoped secondary resource. Owner references cannot point from a
+     * cluster-scoped object to a namespaced custom resource, so events are mapped back through the primary annotations.
+     */
+    private <R extends HasMetadata> InformerEventSource<R, PaymentHubDeployment> clusterScopedEventSource(
+            Class<R> resourceType, EventSourceContext<PaymentHubDeployment> context) {
+        return new InformerEventSource<>(InformerConfiguration.from(resourceType)
+                .withLabelSelector(InformerCacheUtil.MANAGED_BY_SELECTOR)
+                .withSecondaryToPrimaryMapper(Mappers.fromDefaultAnnotations())
+                .build(), context);
     }
 
     /**
@@ -81,118 +249,359 @@ public class PaymentHubDeploymentController implements Reconciler<PaymentHubDepl
      */
     @Override
     public UpdateControl<PaymentHubDeployment> reconcile(PaymentHubDeployment resource, Context<PaymentHubDeployment> context) {
+        // When sharded, another replica owns this resource; forget its state so a later takeover reconciles it in full
+        ResourceID resourceID = ResourceID.fromResource(resource);
+        if (!shardMembership.owns(resourceID)) {
+            log.debug("Resource {} is owned by another shard, skipping.", resource.getMetadata().getName());
+            forgetResource(resourceID);
+            return UpdateControl.noUpdate();
+        }
+
+        ApiCallAccounting apiCalls = ApiCallAccounting.open(resource);
+        try {
+            return reconcileResource(resource, context);
+        } finally {
+            closeApiCallAccounting(resource, apiCalls);
+        }
+    }
+
+    /**
+     * Performs the reconciliation, with every API request it makes attributed to the custom resource.
+     */
+    private UpdateControl<PaymentHubDeployment> reconcileResource(PaymentHubDeployment resource,
+                                                                  Context<PaymentHubDeployment> context) {
         String resourceName = resource.getMetadata().getName();
 
+        // Fast path: the spec generation is already observed and no dependent changed since the last successful reconcile.
+        // A resource waiting for its dependencies is reconciled on every event, since those are not dependents.
+        if (isGenerationObserved(resource) && !isWaitingForDependencies(resource)
+                && dependentStateCache.isUnchanged(resource, context)) {
+            log.debug("Generation {} of {} already observed and no dependent drifted, skipping.",
+                    resource.getMetadata().getGeneration(), resourceName);
+            return UpdateControl.noUpdate();
+        }
+
+        // Defer the reconciliation if the global or namespace budget is exhausted, so a burst of CR changes cannot
+        // flood the API server. Taken after the fast path, so skipped reconciliations do not use up tokens.
+        Optional<Duration> throttled = reconcileThrottle.tryAcquire(ResourceID.fromResource(resource));
+        if (throttled.isPresent()) {
+            log.debug("Reconciliation of {} throttled, retrying in {} ms.", resourceName, throttled.get().toMillis());
+            return UpdateControl.<PaymentHubDeployment>noUpdate().rescheduleAfter(throttled.get());
+        }
+
         // Check if the deployment is disabled
         if (resource.getSpec().getEnabled() == null || !resource.getSpec().getEnabled()) {
             log.info("Deployment {} is disabled, deleting all associated resources.", resourceName);
-            DeletionUtil.deleteResources(kubernetesClient, resource);
-            return StatusUpdateUtil.updateDisabledStatus(kubernetesClient, resource);
+            if (bulkDeletion) {
+                DeletionUtil.deleteByLabels(kubernetesClient, resource, context.getWorkflowExecutorService(), NAMESPACED_DEPENDENT_TYPES);
+                DeletionUtil.deleteClusterScopedRbacResources(kubernetesClient, resource);
+            } else {
+                DeletionUtil.deleteResources(kubernetesClient, resource);
+            }
+            dependentStateCache.record(resource, context);
+            retryPolicy.reset(ResourceID.fromResource(resource));
+            return operatorMetrics.timePhase(OperatorMetrics.PHASE_STATUS, resource,
+                    () -> StatusUpdateUtil.updateDisabledStatus(resource));
         }
 
         // Log detailed resource information for debugging
         LoggingUtil.logResourceDetails(resource);
 
         try {
+            // A Deployment that has not been scaled up yet is held at zero replicas until its dependencies are ready. One
+            // that already runs is left alone, so a dependency outage does not also take down its dependents.
+            Deployment existingDeployment = InformerCacheUtil.getCachedResource(context, Deployment.class, resourceName,
+                    resource.getMetadata().getNamespace());
+            List<String> pendingDependencies = isScaledUp(existingDeployment) ? Collections.<String>emptyList()
+                    : dependencyGate.unreadyDependencies(resource, context);
+
+            // RBAC, Secret, ConfigMap and networking dependents have no ordering between them and run in parallel
+            DependencyGraphExecutor graph = new DependencyGraphExecutor(context.getWorkflowExecutorService(),
+                    (step, durationNanos, failed) -> operatorMetrics.recordStep(step, resource, durationNanos, failed));
+
             // Check and reconcile RBACs
             if (resource.getSpec().getRbacEnabled() == null || !resource.getSpec().getRbacEnabled()) {
                 log.info("RBACs for resource {} are disabled, deleting associated RBAC resources.", resourceName);
-                DeletionUtil.deleteRbacResources(kubernetesClient, resource);
+                if (bulkDeletion) {
+                    graph.addStep("serviceAccount", () -> DeletionUtil.deleteByLabels(kubernetesClient, resource, ServiceAccount.class));
+                    graph.addStep("role", () -> DeletionUtil.deleteByLabels(kubernetesClient, resource, Role.class));
+                    graph.addStep("roleBinding", () -> DeletionUtil.deleteByLabels(kubernetesClient, resource, RoleBinding.class));
+                    graph.addStep("clusterRbac", () -> DeletionUtil.deleteClusterScopedRbacResources(kubernetesClient, resource));
+                } else {
+                    graph.addStep("rbac", () -> DeletionUtil.deleteRbacResources(kubernetesClient, resource));
+                }
             } else {
                 // INFO level log to indicate RBAC reconciliation start
                 log.info("Reconciling RBAC resources for {}.", resourceName); 
-                rbacUtils.reconcileServiceAccount(resource);
-                rbacUtils.reconcileRole(resource);
-                rbacUtils.reconcileRoleBinding(resource);
-                rbacUtils.reconcileClusterRole(resource);
-                rbacUtils.reconcileClusterRoleBinding(resource);
+                graph.addStep("serviceAccount", () -> rbacUtils.reconcileServiceAccount(resource, context));
+                graph.addStep("role", () -> rbacUtils.reconcileRole(resource, context));
+                graph.addStep("roleBinding", () -> rbacUtils.reconcileRoleBinding(resource, context));
+                graph.addStep("clusterRole", () -> rbacUtils.reconcileClusterRole(resource, context));
+                graph.addStep("clusterRoleBinding", () -> rbacUtils.reconcileClusterRoleBinding(resource, context));
             }
 
             // Check and reconcile Secrets
             if (resource.getSpec().getSecretEnabled() == null || !resource.getSpec().getSecretEnabled()) {
                 log.info("Secrets for resource {} are disabled, deleting associated Secret resources.", resourceName);
-                DeletionUtil.deleteSecretResources(kubernetesClient, resource);
+                graph.addStep("secret", bulkDeletion
+                        ? () -> DeletionUtil.deleteByLabels(kubernetesClient, resource, Secret.class)
+                        : () -> DeletionUtil.deleteSecretResources(kubernetesClient, resource));
             } else {
                 // DEBUG level log to indicate Secret reconciliation
                 log.debug("Reconciling Secret for {}.", resourceName);
-                resourceUtils.reconcileSecret(resource);
+                graph.addStep("secret", () -> resourceUtils.reconcileSecret(resource, context));
             } 
 
             // Check and reconcile ConfigMaps
             if (resource.getSpec().getConfigMapEnabled() == null || !resource.getSpec().getConfigMapEnabled()) {
                 log.info("ConfigMap for resource {} is disabled, deleting associated ConfigMap resources.", resourceName);
-                DeletionUtil.deleteConfigMapResources(kubernetesClient, resource);
+                graph.addStep("configMap", bulkDeletion
+                        ? () -> DeletionUtil.deleteByLabels(kubernetesClient, resource, ConfigMap.class)
+                        : () -> DeletionUtil.deleteConfigMapResources(kubernetesClient, resource));
             } else {
                 // DEBUG level log to indicate ConfigMap reconciliation
                 log.debug("Reconciling ConfigMap for {}.", resourceName);
-                resourceUtils.reconcileConfigmap(resource);
+                graph.addStep("configMap", () -> resourceUtils.reconcileConfigmap(resource, context));
             }
 
             // Check and reconcile Ingress and Services
             if ("ph-ee-connector-gsma".equals(resourceName)) {
                 // Special case: only reconcile Services, not Ingress, for "ph-ee-connector-gsma"
                 log.info("Special case for {}: Reconciling Services only, not Ingress.", resourceName);
-                networkingUtils.reconcileServices(resource);
+                graph.addStep("services", () -> networkingUtils.reconcileServices(resource, context));
             } else {
                 if (resource.getSpec().getIngressEnabled() == null || !resource.getSpec().getIngressEnabled()) {
                     log.info("Ingress for resource {} is disabled, deleting associated Ingress resources.", resourceName);
-                    DeletionUtil.deleteIngressResources(kubernetesClient, resource);
-                    DeletionUtil.deleteService(kubernetesClient, resource);
+                    graph.addStep("ingress", bulkDeletion
+                            ? () -> DeletionUtil.deleteByLabels(kubernetesClient, resource, Ingress.class)
+                            : () -> DeletionUtil.deleteIngressResources(kubernetesClient, resource));
+                    graph.addStep("services", bulkDeletion
+                            ? () -> DeletionUtil.deleteByLabels(kubernetesClient, resource, Service.class)
+                            : () -> DeletionUtil.deleteService(kubernetesClient, resource));
                 } else {
                     // INFO level log to indicate Ingress and Service reconciliation
                     log.info("Reconciling Ingress and Service for {}.", resourceName);
-                    networkingUtils.reconcileServices(resource);
-                    networkingUtils.reconcileIngress(resource);
+                    graph.addStep("services", () -> networkingUtils.reconcileServices(resource, context));
+                    graph.addStep("ingress", () -> networkingUtils.reconcileIngress(resource, context));
                 }
             }
 
-            // Always reconcile the Deployment itself
+            // Always reconcile the Deployment itself, once the Secret, ConfigMap and RBAC objects its pods use are in place
             log.info("Reconciling Deployment for {}.", resourceName);
-            reconcileDeployment(resource);
+            graph.addStep("deployment", () -> reconcileDeployment(resource, context, !pendingDependencies.isEmpty()),
+                    graph.getStepNames());
+
+            // The HorizontalPodAutoscaler targets the Deployment, so it is written once the Deployment exists
+            if (AutoscalingUtils.isEnabled(resource)) {
+                log.debug("Reconciling HorizontalPodAutoscaler for {}.", resourceName);
+                graph.addStep("autoscaling", () -> autoscalingUtils.reconcileHorizontalPodAutoscaler(resource, context),
+                        "deployment");
+            } else {
+                graph.addStep("autoscaling", bulkDeletion
+                        ? () -> DeletionUtil.deleteByLabels(kubernetesClient, resource, HorizontalPodAutoscaler.class)
+                        : () -> DeletionUtil.deleteHorizontalPodAutoscaler(kubernetesClient, resource));
+            }
+            graph.execute();
+
+            if (!pendingDependencies.isEmpty()) {
+                log.info("Deployment {} held at zero replicas until its dependencies are ready: {}", resourceName,
+                        pendingDependencies);
+                dependentStateCache.record(resource, context);
+                retryPolicy.reset(ResourceID.fromResource(resource));
+                return operatorMetrics.timePhase(OperatorMetrics.PHASE_STATUS, resource,
+                        () -> StatusUpdateUtil.updateWaitingStatus(resource, InformerCacheUtil.getCachedResource(context,
+                                Deployment.class, resourceName, resource.getMetadata().getNamespace()), pendingDependencies))
+                        .rescheduleAfter(dependencyGate.getRecheckInterval());
+            }
 
             // Return success status update
             log.info("Reconciliation successful for {}.", resourceName);
-            return StatusUpdateUtil.updateStatus(kubernetesClient, resource, resource.getSpec().getReplicas(), resource.getSpec().getImage(), true, "");
+            dependentStateCache.record(resource, context);
+            retryPolicy.reset(ResourceID.fromResource(resource));
+            return operatorMetrics.timePhase(OperatorMetrics.PHASE_STATUS, resource,
+                    () -> StatusUpdateUtil.updateRolloutStatus(resource, InformerCacheUtil.getCachedResource(context,
+                            Deployment.class, resourceName, resource.getMetadata().getNamespace())));
 
         } catch (Exception e) {
+            ResourceID resourceID = ResourceID.fromResource(resource);
+            dependentStateCache.forget(resourceID);
+            ReconcileRetryPolicy.FailureType failure = ReconcileRetryPolicy.classify(e);
+            operatorMetrics.recordRetry(failure);
+
+            // Retrying cannot fix an invalid object or missing permissions; the next change to the custom resource or
+            // one of its dependents triggers a new reconcile
+            if (failure == ReconcileRetryPolicy.FailureType.PERMANENT) {
+                retryPolicy.reset(resourceID);
+                log.error("Reconciliation of " + resourceName + " failed permanently, not retrying until it changes", e);
+                return operatorMetrics.timePhase(OperatorMetrics.PHASE_STATUS, resource,
+                        () -> StatusUpdateUtil.updateErrorStatus(resource, resource.getSpec().getImage(), e));
+            }
+            Duration retryDelay = retryPolicy.nextDelay(resourceID, failure, e);
+
+            // Conflicts and throttling are expected under load; retry without writing an error status, which would only
+            // add another request while the API server is pushing back
+            if (failure == ReconcileRetryPolicy.FailureType.CONFLICT || failure == ReconcileRetryPolicy.FailureType.THROTTLED) {
+                log.info("Reconciliation of {} failed with a {} error, retrying in {} ms: {}", resourceName,
+                        failure.name().toLowerCase(), retryDelay.toMillis(), e.getMessage());
+                return UpdateControl.<PaymentHubDeployment>noUpdate().rescheduleAfter(retryDelay);
+            }
+
             // Log the error and return an error status update
-            log.error("Error during reconciliation for resource " + resourceName, e);
-            return StatusUpdateUtil.updateErrorStatus(kubernetesClient, resource, resource.getSpec().getImage(), e);
+            log.error("Error during reconciliation for resource " + resourceName + ", retrying in " + retryDelay.toMillis() + " ms", e);
+            return operatorMetrics.timePhase(OperatorMetrics.PHASE_STATUS, resource,
+                    () -> StatusUpdateUtil.updateErrorStatus(resource, resource.getSpec().getImage(), e))
+                    .rescheduleAfter(retryDelay);
+        }
+    }
+
+    /**
+     * Cleans up after a deleted custom resource. Namespaced dependents carry an owner reference to the custom resource
+     * and are removed by the Kubernetes garbage collector, so only the cluster-scoped ClusterRole and
+     * ClusterRoleBinding, which owner references cannot cover, are deleted here before the finalizer is removed.
+     *
+     * @param resource The custom resource being deleted.
+     * @param context  The context of the cleanup.
+     * @return DeleteControl<PaymentHubDeployment> allowing the finalizer to be removed.
+     */
+    @Override
+    public DeleteControl cleanup(PaymentHubDeployment resource, Context<PaymentHubDeployment> context) {
+        if (!shardMembership.owns(ResourceID.fromResource(resource))) {
+            // The owning shard removes the cluster-scoped objects and the finalizer
+            return DeleteControl.noFinalizerRemoval();
         }
+        log.info("Resource {} deleted, removing cluster-scoped RBAC resources.", resource.getMetadata().getName());
+        ApiCallAccounting apiCalls = ApiCallAccounting.open(resource);
+        try {
+            DeletionUtil.deleteClusterScopedRbacResources(kubernetesClient, resource);
+        } finally {
+            closeApiCallAccounting(resource, apiCalls);
+        }
+
+        ResourceID resourceID = ResourceID.fromResource(resource);
+        forgetResource(resourceID);
+        reconcileThrottle.release(resourceID);
+        return DeleteControl.defaultDelete();
+    }
+
+    /**
+     * Drops what this replica keeps about a custom resource it no longer reconciles, because it was deleted or moved
+     * to another shard: its recorded dependent state, its retry state and its per-resource meters.
+     *
+     * @param resourceID The custom resource to forget.
+     */
+    private void forgetResource(ResourceID resourceID) {
+        dependentStateCache.forget(resourceID);
+        retryPolicy.reset(resourceID);
+        operatorMetrics.removeResourceMeters(resourceID);
+    }
+
+    /**
+     * Closes the API call accounting of a reconcile or cleanup, records its traffic and logs its summary, as a warning
+     * when the budget was exceeded.
+     *
+     * @param resource The custom resource that was reconciled.
+     * @param apiCalls The accounting opened for the reconcile.
+     */
+    private void closeApiCallAccounting(PaymentHubDeployment resource, ApiCallAccounting apiCalls) {
+        apiCalls.close();
+        operatorMetrics.recordReconcileApiCalls(resource, apiCalls);
+        apiCallBudget.check(apiCalls);
+    }
+
+    /**
+     * Checks whether the status already reflects the current spec generation of the custom resource.
+     *
+     * @param resource The custom resource being reconciled.
+     * @return true if the status reports the current generation as observed, false otherwise.
+     */
+    private boolean isGenerationObserved(PaymentHubDeployment resource) {
+        return resource.getStatus() != null
+                && resource.getStatus().getObservedGeneration() != null
+                && resource.getStatus().getObservedGeneration().equals(resource.getMetadata().getGeneration());
+    }
+
+    /**
+     * Checks whether the status reports that the Deployment is held back for its dependencies.
+     *
+     * @param resource The custom resource being reconciled.
+     * @return true if the last reconciliation was waiting for dependencies, false otherwise.
+     */
+    private boolean isWaitingForDependencies(PaymentHubDeployment resource) {
+        return resource.getStatus() != null
+                && StatusUpdateUtil.ROLLOUT_WAITING.equals(resource.getStatus().getRolloutStatus());
+    }
+
+    /**
+     * Checks whether a Deployment has been scaled up, after which its dependencies are no longer checked.
+     *
+     * @param deployment The cached Deployment, or null if it does not exist yet.
+     * @return true if the Deployment asks for at least one replica, false otherwise.
+     */
+    private static boolean isScaledUp(Deployment deployment) {
+        return deployment != null && deployment.getSpec() != null
+                && deployment.getSpec().getReplicas() != null && deployment.getSpec().getReplicas() > 0;
     }
 
-    
     /**
      * Reconciles the Deployment based on the given custom resource.
      * 
-     * @param resource The custom resource containing the specifications for the deployment.
+     * @param resource      The custom resource containing the specifications for the deployment.
+     * @param context       The reconciliation context providing access to the informer caches.
+     * @param holdAtZero    Whether the Deployment is written with zero replicas because its dependencies are not ready.
      */
-    private void reconcileDeployment(PaymentHubDeployment resource) {
+    private void reconcileDeployment(PaymentHubDeployment resource, Context<PaymentHubDeployment> context,
+                                     boolean holdAtZero) {
         log.info("Reconciling Deployment for resource: {}", resource.getMetadata().getName());
-        Deployment deployment = createDeployment(resource);
+        Deployment desired = createDeployment(resource);
+        if (holdAtZero && desired != null) {
+            desired.getSpec().setReplicas(0);
+        }
+        Deployment deployment = FingerprintUtil.addFingerprint(desired);
         log.info("Created Deployment spec: {}", deployment);
 
-        Resource<Deployment> deploymentResource = kubernetesClient.apps().deployments()
-                .inNamespace(resource.getMetadata().getNamespace())
-                .withName(resource.getMetadata().getName());
+        Deployment existingDeployment = InformerCacheUtil.getCachedResource(context, Deployment.class, resource.getMetadata().getName(), resource.getMetadata().getNamespace());
 
-        if (deploymentResource.get() == null) {
-            deploymentResource.create(deployment);
-            log.info("Created new Deployment: {}", resource.getMetadata().getName());
-        } else {
-            deploymentResource.replace(deployment);
-            log.info("Updated existing Deployment: {}", resource.getMetadata().getName());
+        // An autoscaled Deployment is fingerprinted without a replica count, so the HorizontalPodAutoscaler scaling it
+        // does not cause a rewrite; a write for a spec change leaves the count the HorizontalPodAutoscaler last set
+        if (deployment != null && deployment.getSpec().getReplicas() == null) {
+            deployment.getSpec().setReplicas(autoscaledReplicas(resource, existingDeployment, serverSideApply));
         }
+
+        ApplyUtil.applyIfChanged(kubernetesClient, serverSideApply, deployment, existingDeployment,
+                NonDeletingOperation::update);
     }
 
+    /**
+     * Determines the replica count to write for a Deployment scaled by a HorizontalPodAutoscaler. A new Deployment, or
+     * one released after waiting for its dependencies, starts at the minimum. Once the HorizontalPodAutoscaler's field
+     * manager owns the count, server-side apply leaves the field out so it keeps that count. Until then, and on every
+     * full replace, the count from the informer cache is carried over, since a server-side apply dropping a field only
+     * the operator owns would remove it.
+     *
+     * @param resource           The custom resource being reconciled.
+     * @param existingDeployment The cached Deployment, or null if it does not exist yet.
+     * @param serverSideApply    Whether the Deployment is written with server-side apply.
+     * @return The replica count to write, or null to leave it out of the apply.
+     */
+    static Integer autoscaledReplicas(PaymentHubDeployment resource, Deployment existingDeployment,
+                                      boolean serverSideApply) {
+        if (!isScaledUp(existingDeployment)) {
+            return AutoscalingUtils.minReplicas(resource);
+        }
+        if (serverSideApply && AutoscalingUtils.isReplicasOwnedByOtherManager(existingDeployment)) {
+            return null;
+        }
+        return existingDeployment.getSpec().getReplicas();
+    }
 
     /**
-     * Creates a Kubernetes Deployment object based on the custom resource specifications.
+     * Creates a Kubernetes Deployment object based on the custom resource specifications. The replica count is left
+     * unset when a HorizontalPodAutoscaler manages it.
      * 
      * @param resource The custom resource specifying the deployment configuration.
      * @return The created Deployment object, or null if critical fields are missing.
      */
-    private Deployment createDeployment(PaymentHubDeployment resource) {
+    Deployment createDeployment(PaymentHubDeployment resource) {
         log.info("Creating Deployment spec for resource: {}", resource.getMetadata().getName());
 
         // Define labels for the Deployment and Pod templates
@@ -258,18 +667,9 @@ public class PaymentHubDeploymentController implements Reconciler<PaymentHubDepl
         PodSpecBuilder podSpecBuilder = new PodSpecBuilder()
             .withContainers(container);
 
-        // Check the flag to determine whether to add the init container 
-        if (Boolean.TRUE.equals(resource.getSpec().getInitContainerEnabled())) {
-            log.info("Init container enabled, adding to the PodSpec.");
-            Container initContainer = new ContainerBuilder()
-                .withName("wait-db")
-                .withImage("jwilder/dockerize")
-                .withArgs("-timeout=120s", "-wait", "tcp://operationsmysql:3306") 
-                .build();
-            podSpecBuilder.withInitContainers(initContainer);
-        } else {
-            log.info("Init container not enabled, skipping init container.");
-        }
+        // Pods no longer wait for their dependencies in an init container; the operator holds the Deployment at zero
+        // replicas until the dependencies in spec.dependsOn are ready. Without dependsOn, initContainerEnabled makes
+        // DependencyGate wait for operationsmysql:3306 like the init container did.
 
         // Add volumes conditionally
         if (resource.getSpec().getVolMount() != null && Boolean.TRUE.equals(resource.getSpec().getVolMount().getEnabled())) {
@@ -298,7 +698,7 @@ public class PaymentHubDeploymentController implements Reconciler<PaymentHubDepl
 
         // Define the DeploymentSpec with replicas, selector, and template
         DeploymentSpec deploymentSpec = new DeploymentSpecBuilder()
-            .withReplicas(resource.getSpec().getReplicas())
+            .withReplicas(AutoscalingUtils.isEnabled(resource) ? null : resource.getSpec().getReplicas())
             .withSelector(new LabelSelectorBuilder()
                 .withMatchLabels(labels)
                 .build())
@@ -319,6 +719,7 @@ public class PaymentHubDeploymentController implements Reconciler<PaymentHubDepl
             .withName(name)
             .withNamespace(namespace)
             .withLabels(labels)
+            .addToLabels(OwnerReferenceUtils.createOwnerLabels(resource))
             .withOwnerReferences(OwnerReferenceUtils.createOwnerReferences(resource))
             .build();
 
@@ -332,5 +733,99 @@ public class PaymentHubDeploymentController implements Reconciler<PaymentHubDepl
             .build();
     }
 
+    /**
+     * Builder collecting the client and tuning options of a PaymentHubDeploymentController.
+     */
+    public static class Builder {
+        private final KubernetesClient kubernetesClient;
+        private boolean serverSideApply;
+        private ReconcileThrottle reconcileThrottle = ReconcileThrottle.unlimited();
+        private boolean bulkDeletion;
+        private ShardMembership shardMembership = ShardMembership.disabled();
+        private OperatorMetrics operatorMetrics = OperatorMetrics.disabled();
+        private ApiCallBudget apiCallBudget = ApiCallBudget.unlimited();
+        private ReconcileRetryPolicy retryPolicy = ReconcileRetryPolicy.defaults();
+        private DependencyGate dependencyGate = DependencyGate.defaults();
+
+        private Builder(KubernetesClient kubernetesClient) {
+            this.kubernetesClient = kubernetesClient;
+        }
+
+        /**
+         * @param serverSideApply Whether dependent resources are written with server-side apply under the
+         *                        {@code ph-ee-operator} field manager, converging each object in a single request.
+         * @return This builder.
+         */
+        public Builder withServerSideApply(boolean serverSideApply) {
+            this.serverSideApply = serverSideApply;
+            return this;
+        }
+
+        /**
+         * @param reconcileThrottle The throttle limiting how fast reconciliations start, globally and per namespace.
+         * @return This builder.
+         */
+        public Builder withReconcileThrottle(ReconcileThrottle reconcileThrottle) {
+            this.reconcileThrottle = reconcileThrottle;
+            return this;
+        }
+
+        /**
+         * @param bulkDeletion Whether disabled dependents are deleted per kind by label selector instead of per object.
+         * @return This builder.
+         */
+        public Builder withBulkDeletion(boolean bulkDeletion) {
+            this.bulkDeletion = bulkDeletion;
+            return this;
+        }
+
+        /**
+         * @param shardMembership The shard membership deciding which custom resources this replica reconciles.
+         * @return This builder.
+         */
+        public Builder withShardMembership(ShardMembership shardMembership) {
+            this.shardMembership = shardMembership;
+            return this;
+        }
+
+        /**
+         * @param operatorMetrics The metrics the reconcile phase durations and API traffic are recorded in.
+         * @return This builder.
+         */
+        public Builder withOperatorMetrics(OperatorMetrics operatorMetrics) {
+            this.operatorMetrics = operatorMetrics;
+            return this;
+        }
+
+        /**
+         * @param apiCallBudget The API traffic a reconcile may cause before its summary is logged as a warning.
+         * @return This builder.
+         */
+        public Builder withApiCallBudget(ApiCallBudget apiCallBudget) {
+            this.apiCallBudget = apiCallBudget;
+            return this;
+        }
+
+        /**
+         * @param retryPolicy The policy deciding when a failed reconcile is retried.
+         * @return This builder.
+         */
+        public Builder withRetryPolicy(ReconcileRetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
 
-}
\ No newline at end of file
+        /**
+         * @param dependencyGate The checks deciding when a Deployment waiting for its dependencies is scaled up.
+         * @return This builder.
+         */
+        public Builder withDependencyGate(DependencyGate dependencyGate) {
+            this.dependencyGate = dependencyGate;
+            return this;
+        }
+
+        public PaymentHubDeploymentController build() {
+            return new PaymentHubDeploymentController(this);
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.paymenthub;
+
+// Kubernetes API model imports
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+
+// Kubernetes client imports
+import io.fabric8.kubernetes.client.KubernetesClient;
+
+// Operator SDK imports
+import io.javaoperatorsdk.operator.api.config.informer.InformerConfiguration;
+import io.javaoperatorsdk.operator.api.reconciler.Context;
+import io.javaoperatorsdk.operator.api.reconciler.ControllerConfiguration;
+import io.javaoperatorsdk.operator.api.reconciler.EventSourceContext;
+import io.javaoperatorsdk.operator.api.reconciler.EventSourceInitializer;
+import io.javaoperatorsdk.operator.api.reconciler.Reconciler;
+import io.javaoperatorsdk.operator.api.reconciler.UpdateControl;
+import io.javaoperatorsdk.operator.processing.event.ResourceID;
+import io.javaoperatorsdk.operator.processing.event.source.EventSource;
+import io.javaoperatorsdk.operator.processing.event.source.informer.InformerEventSource;
+import io.javaoperatorsdk.operator.processing.event.source.informer.Mappers;
+
+// Logging imports
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Custom classes and utils
+import com.paymenthub.customresource.PaymentHubDeployment;
+import com.paymenthub.customresource.PaymentHubStack;
+import com.paymenthub.customresource.PaymentHubStackSpec;
+import com.paymenthub.customresource.PaymentHubStackStatus;
+import com.paymenthub.utils.ApplyUtil;
+import com.paymenthub.utils.DependencyGraphExecutor;
+import com.paymenthub.utils.FingerprintUtil;
+import com.paymenthub.utils.InformerCacheUtil;
+import com.paymenthub.utils.OwnerReferenceUtils;
+import com.paymenthub.utils.ReconcileRetryPolicy;
+import com.paymenthub.utils.ShardMembership;
+import com.paymenthub.utils.ShardRebalanceEventSource;
+import com.paymenthub.utils.StackStatusUtil;
+import com.paymenthub.utils.StackWaveUtil;
+
+// Java utils
+import java.time.Duration;
+import java.util.*;
+
+
+/**
+ * Rolls out the components of a {@code PaymentHubStack} as {@code PaymentHubDeployment} custom resources owned by the
+ * stack, which the PaymentHubDeploymentController then reconciles.
+ *
+ * Components are grouped into waves by their {@code dependsOn} lists. All components of a wave are written at once and
+ * roll out in parallel, and the next wave is only written once every component of the current one is available, so
+ * components never start before the components they call. Status changes of the components trigger a reconcile of the
+ * stack through the PaymentHubDeployment informer, so waves advance without polling. Deleting the stack deletes its
+ * components through their owner references.
+ */
+@ControllerConfiguration
+public class PaymentHubStackController implements Reconciler<PaymentHubStack>, EventSourceInitializer<PaymentHubStack> {
+
+    /**
+     * Label carrying the name of the stack a PaymentHubDeployment belongs to.
+     */
+    public static final String STACK_LABEL = "gazelle.mifos.io/stack";
+
+    /**
+     * - {@code kubernetesClient} is used to write and delete the PaymentHubDeployments of the components.
+     * - {@code serverSideApply} selects whether components are written with server-side apply or with create/edit.
+     * - {@code shardMembership} decides which stacks this replica reconciles when the operator is sharded.
+     * - {@code retryPolicy} decides when a failed reconcile is retried, depending on why it failed.
+     */
+    private static final Logger log = LoggerFactory.getLogger(PaymentHubStackController.class);
+    private final KubernetesClient kubernetesClient;
+    private final boolean serverSideApply;
+    private final ShardMembership shardMembership;
+    private final ReconcileRetryPolicy retryPolicy;
+
+    /**
+     * Constructor for initializing the PaymentHubStackController with the default options.
+     *
+     * @param kubernetesClient The Kubernetes client used for interacting with the Kubernetes API server.
+     */
+    public PaymentHubStackController(KubernetesClient kubernetesClient) {
+        this(kubernetesClient, false, ShardMembership.disabled(), ReconcileRetryPolicy.defaults());
+    }
+
+    /**
+     * Constructor for initializing the PaymentHubStackController with all options.
+     *
+     * @param kubernetesClient The Kubernetes client used for interacting with the Kubernetes API server.
+     * @param serverSideApply  Whether the components' PaymentHubDeployments are written with server-side apply.
+     * @param shardMembership  The shard membership deciding which stacks this replica reconciles.
+     * @param retryPolicy      The policy deciding when a failed reconcile is retried.
+     */
+    public PaymentHubStackController(KubernetesClient kubernetesClient, boolean serverSideApply,
+                                     ShardMembership shardMembership, ReconcileRetryPolicy retryPolicy) {
+        this.kubernetesClient = kubernetesClient;
+        this.serverSideApply = serverSideApply;
+        this.shardMembership = shardMembership;
+        this.retryPolicy = retryPolicy;
+    }
+
+    /**
+     * Registers an informer on the PaymentHubDeployments created for stacks, indexed by owner, so the components of a
+     * stack are read from memory and their status changes trigger a reconcile of the stack.
+     *
+     * @param context The event source context providing the controller configuration and Kubernetes client.
+     * @return The named event sources to register with the controller.
+     */
+    @Override
+    public Map<String, EventSource> prepareEventSources(EventSourceContext<PaymentHubStack> context) {
+        InformerEventSource<PaymentHubDeployment, PaymentHubStack> componentEventSource = new InformerEventSource<>(
+                InformerConfiguration.from(PaymentHubDeployment.class, context)
+                        .followNamespaceChanges(true)
+                        .withLabelSelector(STACK_LABEL)
+                        .withSecondaryToPrimaryMapper(Mappers.fromOwnerReference())
+                        .build(), context);
+        componentEventSource.addIndexers(Collections.singletonMap(InformerCacheUtil.OWNER_UID_INDEX, InformerCacheUtil::ownerUids));
+
+        return EventSourceInitializer.nameEventSources(
+                new ShardRebalanceEventSource(shardMembership, context.getPrimaryCache()),
+                componentEventSource);
+    }
+
+    /**
+     * Reconciles the stack by writing the components of every wave whose predecessors are available, deleting the
+     * components removed from the stack, and aggregating the state of all components into the stack status.
+     *
+     * @param stack   The stack custom resource declaring the components and their dependencies.
+     * @param context The context in which the reconciliation is taking place, providing access to cached resources.
+     * @return UpdateControl<PaymentHubStack> The control object that dictates the next steps for the reconciliation loop.
+     */
+    @Override
+    public UpdateControl<PaymentHubStack> reconcile(PaymentHubStack stack, Context<PaymentHubStack> context) {
+        String stackName = stack.getMetadata().getName();
+        ResourceID resourceID = ResourceID.fromResource(stack);
+
+        if (!shardMembership.owns(resourceID)) {
+            log.debug("Stack {} is owned by another shard, skipping.", stackName);
+            retryPolicy.reset(resourceID);
+            return UpdateControl.noUpdate();
+        }
+
+        List<PaymentHubStackSpec.Component> components = stack.getSpec() != null && stack.getSpec().getComponents() != null
+                ? stack.getSpec().getComponents() : Collections.emptyList();
+        List<List<String>> waves;
+        try {
+            waves = StackWaveUtil.computeWaves(components);
+        } catch (IllegalArgumentException e) {
+            // Retrying cannot fix the graph; the stack is reconciled again once its spec changes
+            log.error("Stack {} has an invalid component graph: {}", stackName, e.getMessage());
+            return StackStatusUtil.updateInvalidStatus(stack, e.getMessage());
+        }
+
+        try {
+            UpdateControl<PaymentHubStack> result = rollOut(stack, components, waves, context);
+            retryPolicy.reset(resourceID);
+            return result;
+        } catch (Exception e) {
+            ReconcileRetryPolicy.FailureType failure = ReconcileRetryPolicy.classify(e);
+            if (failure == ReconcileRetryPolicy.FailureType.PERMANENT) {
+                // Retrying cannot fix it; the stack is reconciled again once it or one of its components changes
+                retryPolicy.reset(resourceID);
+                log.error("Reconciliation of stack " + stackName + " failed permanently, not retrying until it changes", e);
+                return UpdateControl.noUpdate();
+            }
+            Duration retryDelay = retryPolicy.nextDelay(resourceID, failure, e);
+            log.error("Error during reconciliation for stack " + stackName + ", retrying in " + retryDelay.toMillis() + " ms", e);
+            return UpdateControl.<PaymentHubStack>noUpdate().rescheduleAfter(retryDelay);
+        }
+    }
+
+    /**
+     * Walks the waves in order. Out-of-date components of a released wave are written in parallel; a wave is released
+     * once every earlier wave is available, and components of later waves are left as they are until then.
+     */
+    private UpdateControl<PaymentHubStack> rollOut(PaymentHubStack stack, List<PaymentHubStackSpec.Component> components,
+                                                   List<List<String>> waves, Context<PaymentHubStack> context) {
+        Map<String, PaymentHubStackSpec.Component> componentsByName = new HashMap<>();
+        components.forEach(component -> componentsByName.put(component.getName(), component));
+        Map<String, PaymentHubDeployment> existing = InformerCacheUtil.getCachedResourcesByOwner(context,
+                PaymentHubDeployment.class, stack);
+
+        List<PaymentHubStackStatus.ComponentStatus> statuses = new ArrayList<>();
+        int currentWave = waves.size();
+        for (int wave = 0; wave < waves.size(); wave++) {
+            boolean released = currentWave == waves.size();
+            boolean settled = true;
+            DependencyGraphExecutor writes = new DependencyGraphExecutor(context.getWorkflowExecutorService());
+            for (String name : waves.get(wave)) {
+                PaymentHubDeployment live = existing.get(name);
+                PaymentHubDeployment desired = FingerprintUtil.addFingerprint(desiredComponent(stack, componentsByName.get(name)));
+                String phase;
+                if (FingerprintUtil.matches(live, desired)) {
+                    phase = StackStatusUtil.componentPhase(live);
+                } else if (released) {
+                    writes.addStep(name, () -> writeComponent(desired, live));
+                    phase = StackStatusUtil.COMPONENT_PROGRESSING;
+                } else {
+                    phase = StackStatusUtil.COMPONENT_WAITING;
+                }
+                settled &= StackStatusUtil.isSettled(phase);
+                statuses.add(new PaymentHubStackStatus.ComponentStatus(name, wave, phase));
+            }
+            writes.execute();
+            if (released && !settled) {
+                log.info("Stack {} is rolling out wave {} of {}: {}.", stack.getMetadata().getName(), wave + 1,
+                        waves.size(), waves.get(wave));
+                currentWave = wave;
+            }
+        }
+
+        // Components removed from the stack are deleted; their dependents follow through owner references
+        for (PaymentHubDeployment component : existing.values()) {
+            if (!componentsByName.containsKey(component.getMetadata().getName())) {
+                log.info("Component {} was removed from stack {}, deleting it.", component.getMetadata().getName(),
+                        stack.getMetadata().getName());
+                kubernetesClient.resource(component).delete();
+            }
+        }
+
+        return StackStatusUtil.updateStackStatus(stack, statuses, waves.size(), currentWave);
+    }
+
+    /**
+     * Renders the PaymentHubDeployment of a component, owned by and labelled with the stack.
+     *
+     * @param stack     The stack the component belongs to.
+     * @param component The component declared in the stack.
+     * @return The desired PaymentHubDeployment of the component.
+     */
+    PaymentHubDeployment desiredComponent(PaymentHubStack stack, PaymentHubStackSpec.Component component) {
+        Map<String, String> labels = new HashMap<>();
+        labels.put("app.kubernetes.io/managed-by", "ph-ee-operator");
+        labels.put(STACK_LABEL, stack.getMetadata().getName());
+
+        PaymentHubDeployment deployment = new PaymentHubDeployment();
+        deployment.setMetadata(new ObjectMetaBuilder()
+                .withName(component.getName())
+                .withNamespace(stack.getMetadata().getNamespace())
+                .withLabels(labels)
+                .withOwnerReferences(OwnerReferenceUtils.createOwnerReferences(stack))
+                .build());
+        deployment.setSpec(component.getSpec());
+        return deployment;
+    }
+
+    /**
+     * Writes the PaymentHubDeployment of a component. Without server-side apply an existing object is edited rather
+     * than replaced, so the finalizer and annotations added by others are kept. A PaymentHubDeployment that was applied
+     * on its own before the stack existed is adopted the same way.
+     */
+    private void writeComponent(PaymentHubDeployment desired, PaymentHubDeployment live) {
+        if (serverSideApply) {
+            ApplyUtil.serverSideApply(kubernetesClient, desired);
+        } else if (live == null) {
+            // Not in the cache either because it is new or because it was not created by a stack; edit re-reads it
+            kubernetesClient.resource(desired).createOr(existing -> kubernetesClient.resources(PaymentHubDeployment.class)
+                    .inNamespace(desired.getMetadata().getNamespace())
+                    .withName(desired.getMetadata().getName())
+                    .edit(current -> adopt(current, desired)));
+        } else {
+            kubernetesClient.resource(live).edit(current -> adopt(current, desired));
+        }
+        log.info("Wrote component {}.", desired.getMetadata().getName());
+    }
+
+    /**
+     * Copies the spec, labels, fingerprint and owner reference of the desired PaymentHubDeployment onto the live one.
+     */
+    private static PaymentHubDeployment adopt(PaymentHubDeployment current, PaymentHubDeployment desired) {
+        current.setSpec(desired.getSpec());
+        Map<String, String> labels = current.getMetadata().getLabels() != null
+                ? new HashMap<>(current.getMetadata().getLabels()) : new HashMap<>();
+        labels.putAll(desired.getMetadata().getLabels());
+        current.getMetadata().setLabels(labels);
+        Map<String, String> annotations = current.getMetadata().getAnnotations() != null
+                ? new HashMap<>(current.getMetadata().getAnnotations()) : new HashMap<>();
+        annotations.putAll(desired.getMetadata().getAnnotations());
+        current.getMetadata().setAnnotations(annotations);
+        current.getMetadata().setOwnerReferences(desired.getMetadata().getOwnerReferences());
+        return current;
+    }
+}
@@ -20,6 +20,8 @@ public class PaymentHubDeploymentSpec {
     private List<Service> services;
     private List<EnvironmentVariable> environment;
     private Boolean initContainerEnabled;
+    private List<Dependency> dependsOn;
+    private Autoscaling autoscaling;
 
     public PaymentHubDeploymentSpec() {
     }
@@ -183,6 +185,22 @@ public class PaymentHubDeploymentSpec {
         this.initContainerEnabled = initContainerEnabled;
     }
 
+    public List<Dependency> getDependsOn() {
+        return dependsOn;
+    }
+
+    public void setDependsOn(List<Dependency> dependsOn) {
+        this.dependsOn = dependsOn;
+    }
+
+    public Autoscaling getAutoscaling() {
+        return autoscaling;
+    }
+
+    public void setAutoscaling(Autoscaling autoscaling) {
+        this.autoscaling = autoscaling;
+    }
+
 
     @Override
     public String toString() {
@@ -204,6 +222,8 @@ public class PaymentHubDeploymentSpec {
                 ", services=" + services +
                 ", environment=" + environment +
                 ", initContainerEnabled=" + initContainerEnabled +
+                ", dependsOn=" + dependsOn +
+                ", autoscaling=" + autoscaling +
                 '}';
     }
 
@@ -228,14 +248,17 @@ public class PaymentHubDeploymentSpec {
                Objects.equals(getIngress(), that.getIngress()) &&
                Objects.equals(getServices(), that.getServices()) &&
                Objects.equals(getEnvironment(), that.getEnvironment()) &&
-               Objects.equals(getInitContainerEnabled(), that.getInitContainerEnabled());
+               Objects.equals(getInitContainerEnabled(), that.getInitContainerEnabled()) &&
+               Objects.equals(getDependsOn(), that.getDependsOn()) &&
+               Objects.equals(getAutoscaling(), that.getAutoscaling());
     }
 
     @Override
     public int hashCode() {
         return Objects.hash(getEnabled(), getLabels(), getVolMount(), getReplicas(), getImage(), getContainerPort(), 
                             getResources(), getLivenessProbe(), getReadinessProbe(), getRbacEnabled(), getSecretEnabled(), 
-                            getConfigMapEnabled(), getIngressEnabled(), getIngress(), getServices(), getEnvironment(), getInitContainerEnabled());
+                            getConfigMapEnabled(), getIngressEnabled(), getIngress(), getServices(), getEnvironment(), getInitContainerEnabled(),
+                            getDependsOn(), getAutoscaling());
     }
 
     // Inner classes for nested objects 
@@ -1299,4 +1322,548 @@ public class PaymentHubDeploymentSpec {
         }
     }
 
+    /**
+     * Something the pods of the deployment need before they can start: either a Service in the same namespace, ready
+     * once it has a ready endpoint, or a TCP target given by host and port, ready once it accepts connections.
+     */
+    public static class Dependency {
+        private String service;
+        private String host;
+        private Integer port;
+
+        public Dependency() {
+        }
+
+        public Dependency(String service, String host, Integer port) {
+            this.service = service;
+            this.host = host;
+            this.port = port;
+        }
+
+        public String getService() {
+            return service;
+        }
+
+        public void setService(String service) {
+            this.service = service;
+        }
+
+        public String getHost() {
+            return host;
+        }
+
+        public void setHost(String host) {
+            this.host = host;
+        }
+
+        public Integer getPort() {
+            return port;
+        }
+
+        public void setPort(Integer port) {
+            this.port = port;
+        }
+
+        @Override
+        public String toString() {
+            return "Dependency{" +
+                    "service='" + service + '\'' +
+                    ", host='" + host + '\'' +
+                    ", port=" + port +
+                    '}';
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Dependency)) return false;
+            Dependency that = (Dependency) o;
+            return Objects.equals(getService(), that.getService()) &&
+                   Objects.equals(getHost(), that.getHost()) &&
+                   Objects.equals(getPort(), that.getPort());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(getService(), getHost(), getPort());
+        }
+    }
+
+    /**
+     * Horizontal pod autoscaling of the deployment. When enabled, the operator owns an {@code autoscaling/v2}
+     * HorizontalPodAutoscaler for the Deployment, which then decides the replica count instead of {@code replicas}.
+     */
+    public static class Autoscaling {
+        private Boolean enabled;
+        private Integer minReplicas;
+        private Integer maxReplicas;
+        private Integer targetCPUUtilizationPercentage;
+        private Integer targetMemoryUtilizationPercentage;
+        private List<Metric> metrics;
+        private Behavior behavior;
+
+        public Autoscaling() {
+        }
+
+        public Autoscaling(Boolean enabled, Integer minReplicas, Integer maxReplicas, Integer targetCPUUtilizationPercentage,
+                           Integer targetMemoryUtilizationPercentage, List<Metric> metrics, Behavior behavior) {
+            this.enabled = enabled;
+            this.minReplicas = minReplicas;
+            this.maxReplicas = maxReplicas;
+            this.targetCPUUtilizationPercentage = targetCPUUtilizationPercentage;
+            this.targetMemoryUtilizationPercentage = targetMemoryUtilizationPercentage;
+            this.metrics = metrics;
+            this.behavior = behavior;
+        }
+
+        public Boolean getEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(Boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Integer getMinReplicas() {
+            return minReplicas;
+        }
+
+        public void setMinReplicas(Integer minReplicas) {
+            this.minReplicas = minReplicas;
+        }
+
+        public Integer getMaxReplicas() {
+            return maxReplicas;
+        }
+
+        public void setMaxReplicas(Integer maxReplicas) {
+            this.maxReplicas = maxReplicas;
+        }
+
+        public Integer getTargetCPUUtilizationPercentage() {
+            return targetCPUUtilizationPercentage;
+        }
+
+        public void setTargetCPUUtilizationPercentage(Integer targetCPUUtilizationPercentage) {
+            this.targetCPUUtilizationPercentage = targetCPUUtilizationPercentage;
+        }
+
+        public Integer getTargetMemoryUtilizationPercentage() {
+            return targetMemoryUtilizationPercentage;
+        }
+
+        public void setTargetMemoryUtilizationPercentage(Integer targetMemoryUtilizationPercentage) {
+            this.targetMemoryUtilizationPercentage = targetMemoryUtilizationPercentage;
+        }
+
+        public List<Metric> getMetrics() {
+            return metrics;
+        }
+
+        public void setMetrics(List<Metric> metrics) {
+            this.metrics = metrics;
+        }
+
+        public Behavior getBehavior() {
+            return behavior;
+        }
+
+        public void setBehavior(Behavior behavior) {
+            this.behavior = behavior;
+        }
+
+        @Override
+        public String toString() {
+            return "Autoscaling{" +
+                    "enabled=" + enabled +
+                    ", minReplicas=" + minReplicas +
+                    ", maxReplicas=" + maxReplicas +
+                    ", targetCPUUtilizationPercentage=" + targetCPUUtilizationPercentage +
+                    ", targetMemoryUtilizationPercentage=" + targetMemoryUtilizationPercentage +
+                    ", metrics=" + metrics +
+                    ", behavior=" + behavior +
+                    '}';
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Autoscaling)) return false;
+            Autoscaling that = (Autoscaling) o;
+            return Objects.equals(getEnabled(), that.getEnabled()) &&
+                   Objects.equals(getMinReplicas(), that.getMinReplicas()) &&
+                   Objects.equals(getMaxReplicas(), that.getMaxReplicas()) &&
+                   Objects.equals(getTargetCPUUtilizationPercentage(), that.getTargetCPUUtilizationPercentage()) &&
+                   Objects.equals(getTargetMemoryUtilizationPercentage(), that.getTargetMemoryUtilizationPercentage()) &&
+                   Objects.equals(getMetrics(), that.getMetrics()) &&
+                   Objects.equals(getBehavior(), that.getBehavior());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(getEnabled(), getMinReplicas(), getMaxReplicas(), getTargetCPUUtilizationPercentage(),
+                                getTargetMemoryUtilizationPercentage(), getMetrics(), getBehavior());
+        }
+
+        /**
+         * A custom or external metric to scale on. {@code type} is {@code Pods} for a metric of the pods themselves,
+         * {@code Object} for a metric of another object in the namespace, or {@code External} for a metric from outside the
+         * cluster. The target is either an {@code averageValue} per pod or a total {@code value}, as a quantity.
+         */
+        public static class Metric {
+            private String type;
+            private String name;
+            private Map<String, String> selector;
+            private String averageValue;
+            private String value;
+            private DescribedObject describedObject;
+
+            public Metric() {
+            }
+
+            public Metric(String type, String name, Map<String, String> selector, String averageValue, String value,
+                          DescribedObject describedObject) {
+                this.type = type;
+                this.name = name;
+                this.selector = selector;
+                this.averageValue = averageValue;
+                this.value = value;
+                this.describedObject = describedObject;
+            }
+
+            public String getType() {
+                return type;
+            }
+
+            public void setType(String type) {
+                this.type = type;
+            }
+
+            public String getName() {
+                return name;
+            }
+
+            public void setName(String name) {
+                this.name = name;
+            }
+
+            public Map<String, String> getSelector() {
+                return selector;
+            }
+
+            public void setSelector(Map<String, String> selector) {
+                this.selector = selector;
+            }
+
+            public String getAverageValue() {
+                return averageValue;
+            }
+
+            public void setAverageValue(String averageValue) {
+                this.averageValue = averageValue;
+            }
+
+            public String getValue() {
+                return value;
+            }
+
+            public void setValue(String value) {
+                this.value = value;
+            }
+
+            public DescribedObject getDescribedObject() {
+                return describedObject;
+            }
+
+            public void setDescribedObject(DescribedObject describedObject) {
+                this.describedObject = describedObject;
+            }
+
+            @Override
+            public String toString() {
+                return "Metric{" +
+                        "type='" + type + '\'' +
+                        ", name='" + name + '\'' +
+                        ", selector=" + selector +
+                        ", averageValue='" + averageValue + '\'' +
+                        ", value='" + value + '\'' +
+                        ", describedObject=" + describedObject +
+                        '}';
+            }
+
+            @Override
+            public boolean equals(Object o) {
+                if (this == o) return true;
+                if (!(o instanceof Metric)) return false;
+                Metric that = (Metric) o;
+                return Objects.equals(getType(), that.getType()) &&
+                       Objects.equals(getName(), that.getName()) &&
+                       Objects.equals(getSelector(), that.getSelector()) &&
+                       Objects.equals(getAverageValue(), that.getAverageValue()) &&
+                       Objects.equals(getValue(), that.getValue()) &&
+                       Objects.equals(getDescribedObject(), that.getDescribedObject());
+            }
+
+            @Override
+            public int hashCode() {
+                return Objects.hash(getType(), getName(), getSelector(), getAverageValue(), getValue(),
+                                    getDescribedObject());
+            }
+
+            /**
+             * The object in the namespace an {@code Object} metric describes, e.g. an Ingress.
+             */
+            public static class DescribedObject {
+                private String apiVersion;
+                private String kind;
+                private String name;
+
+                public DescribedObject() {
+                }
+
+                public DescribedObject(String apiVersion, String kind, String name) {
+                    this.apiVersion = apiVersion;
+                    this.kind = kind;
+                    this.name = name;
+                }
+
+                public String getApiVersion() {
+                    return apiVersion;
+                }
+
+                public void setApiVersion(String apiVersion) {
+                    this.apiVersion = apiVersion;
+                }
+
+                public String getKind() {
+                    return kind;
+                }
+
+                public void setKind(String kind) {
+                    this.kind = kind;
+                }
+
+                public String getName() {
+                    return name;
+                }
+
+                public void setName(String name) {
+                    this.name = name;
+                }
+
+                @Override
+                public String toString() {
+                    return "DescribedObject{" +
+                            "apiVersion='" + apiVersion + '\'' +
+                            ", kind='" + kind + '\'' +
+                            ", name='" + name + '\'' +
+                            '}';
+                }
+
+                @Override
+                public boolean equals(Object o) {
+                    if (this == o) return true;
+                    if (!(o instanceof DescribedObject)) return false;
+                    DescribedObject that = (DescribedObject) o;
+                    return Objects.equals(getApiVersion(), that.getApiVersion()) &&
+                           Objects.equals(getKind(), that.getKind()) &&
+                           Objects.equals(getName(), that.getName());
+                }
+
+                @Override
+                public int hashCode() {
+                    return Objects.hash(getApiVersion(), getKind(), getName());
+                }
+            }
+        }
+
+        /**
+         * Scale-up and scale-down rules of the HorizontalPodAutoscaler; unset rules keep the Kubernetes defaults.
+         */
+        public static class Behavior {
+            private ScalingRules scaleUp;
+            private ScalingRules scaleDown;
+
+            public Behavior() {
+            }
+
+            public Behavior(ScalingRules scaleUp, ScalingRules scaleDown) {
+                this.scaleUp = scaleUp;
+                this.scaleDown = scaleDown;
+            }
+
+            public ScalingRules getScaleUp() {
+                return scaleUp;
+            }
+
+            public void setScaleUp(ScalingRules scaleUp) {
+                this.scaleUp = scaleUp;
+            }
+
+            public ScalingRules getScaleDown() {
+                return scaleDown;
+            }
+
+            public void setScaleDown(ScalingRules scaleDown) {
+                this.scaleDown = scaleDown;
+            }
+
+            @Override
+            public String toString() {
+                return "Behavior{" +
+                        "scaleUp=" + scaleUp +
+                        ", scaleDown=" + scaleDown +
+                        '}';
+            }
+
+            @Override
+            public boolean equals(Object o) {
+                if (this == o) return true;
+                if (!(o instanceof Behavior)) return false;
+                Behavior that = (Behavior) o;
+                return Objects.equals(getScaleUp(), that.getScaleUp()) &&
+                       Objects.equals(getScaleDown(), that.getScaleDown());
+            }
+
+            @Override
+            public int hashCode() {
+                return Objects.hash(getScaleUp(), getScaleDown());
+            }
+
+            /**
+             * How fast the replica count may change in one direction. {@code selectPolicy} is {@code Max}, {@code Min} or
+             * {@code Disabled}.
+             */
+            public static class ScalingRules {
+                private Integer stabilizationWindowSeconds;
+                private String selectPolicy;
+                private List<Policy> policies;
+
+                public ScalingRules() {
+                }
+
+                public ScalingRules(Integer stabilizationWindowSeconds, String selectPolicy, List<Policy> policies) {
+                    this.stabilizationWindowSeconds = stabilizationWindowSeconds;
+                    this.selectPolicy = selectPolicy;
+                    this.policies = policies;
+                }
+
+                public Integer getStabilizationWindowSeconds() {
+                    return stabilizationWindowSeconds;
+                }
+
+                public void setStabilizationWindowSeconds(Integer stabilizationWindowSeconds) {
+                    this.stabilizationWindowSeconds = stabilizationWindowSeconds;
+                }
+
+                public String getSelectPolicy() {
+                    return selectPolicy;
+                }
+
+                public void setSelectPolicy(String selectPolicy) {
+                    this.selectPolicy = selectPolicy;
+                }
+
+                public List<Policy> getPolicies() {
+                    return policies;
+                }
+
+                public void setPolicies(List<Policy> policies) {
+                    this.policies = policies;
+                }
+
+                @Override
+                public String toString() {
+                    return "ScalingRules{" +
+                            "stabilizationWindowSeconds=" + stabilizationWindowSeconds +
+                            ", selectPolicy='" + selectPolicy + '\'' +
+                            ", policies=" + policies +
+                            '}';
+                }
+
+                @Override
+                public boolean equals(Object o) {
+                    if (this == o) return true;
+                    if (!(o instanceof ScalingRules)) return false;
+                    ScalingRules that = (ScalingRules) o;
+                    return Objects.equals(getStabilizationWindowSeconds(), that.getStabilizationWindowSeconds()) &&
+                           Objects.equals(getSelectPolicy(), that.getSelectPolicy()) &&
+                           Objects.equals(getPolicies(), that.getPolicies());
+                }
+
+                @Override
+                public int hashCode() {
+                    return Objects.hash(getStabilizationWindowSeconds(), getSelectPolicy(), getPolicies());
+                }
+            }
+
+            /**
+             * A limit on how much the replica count may change within a period: by a number of {@code Pods} or by a
+             * {@code Percent} of the current replicas.
+             */
+            public static class Policy {
+                private String type;
+                private Integer value;
+                private Integer periodSeconds;
+
+                public Policy() {
+                }
+
+                public Policy(String type, Integer value, Integer periodSeconds) {
+                    this.type = type;
+                    this.value = value;
+                    this.periodSeconds = periodSeconds;
+                }
+
+                public String getType() {
+                    return type;
+                }
+
+                public void setType(String type) {
+                    this.type = type;
+                }
+
+                public Integer getValue() {
+                    return value;
+                }
+
+                public void setValue(Integer value) {
+                    this.value = value;
+                }
+
+                public Integer getPeriodSeconds() {
+                    return periodSeconds;
+                }
+
+                public void setPeriodSeconds(Integer periodSeconds) {
+                    this.periodSeconds = periodSeconds;
+                }
+
+                @Override
+                public String toString() {
+                    return "Policy{" +
+                            "type='" + type + '\'' +
+                            ", value=" + value +
+                            ", periodSeconds=" + periodSeconds +
+                            '}';
+                }
+
+                @Override
+                public boolean equals(Object o) {
+                    if (this == o) return true;
+                    if (!(o instanceof Policy)) return false;
+                    Policy that = (Policy) o;
+                    return Objects.equals(getType(), that.getType()) &&
+                           Objects.equals(getValue(), that.getValue()) &&
+                           Objects.equals(getPeriodSeconds(), that.getPeriodSeconds());
+                }
+
+                @Override
+                public int hashCode() {
+                    return Objects.hash(getType(), getValue(), getPeriodSeconds());
+                }
+            }
+        }
+    }
+
 }
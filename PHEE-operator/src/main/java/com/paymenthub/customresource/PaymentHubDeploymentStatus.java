@@ -1,20 +1,26 @@
 package com.paymenthub.customresource;
 
+import java.util.List;
 import java.util.Objects;
 
 /**
  * Represents the status of a PaymentHub deployment.
  * 
  * This class encapsulates information about the deployment's current state, including the number of available replicas,
- * any error messages, the last applied image, and whether the deployment is ready. It provides getter and setter methods
- * to access and modify these properties, as well as `toString()`, `equals()`, and `hashCode()` methods for object comparison
- * and representation.
+ * any error messages, the last applied image, whether the deployment is ready, the spec generation it reflects, the
+ * rollout progress of the underlying Deployment, and the dependencies it is still waiting for. It provides getter and
+ * setter methods to access and modify these properties, as well as `toString()`, `equals()`, and `hashCode()` methods
+ * for object comparison and representation.
  */
 public class PaymentHubDeploymentStatus {
     private Integer availableReplicas;
     private String errorMessage;
     private String lastAppliedImage;
     private boolean ready;
+    private Long observedGeneration;
+    private Integer updatedReplicas;
+    private String rolloutStatus;
+    private List<String> pendingDependencies;
 
     public PaymentHubDeploymentStatus() {
     }
@@ -58,6 +64,38 @@ public class PaymentHubDeploymentStatus {
         this.ready = ready;
     }
 
+    public Long getObservedGeneration() {
+        return observedGeneration;
+    }
+
+    public void setObservedGeneration(Long observedGeneration) {
+        this.observedGeneration = observedGeneration;
+    }
+
+    public Integer getUpdatedReplicas() {
+        return updatedReplicas;
+    }
+
+    public void setUpdatedReplicas(Integer updatedReplicas) {
+        this.updatedReplicas = updatedReplicas;
+    }
+
+    public String getRolloutStatus() {
+        return rolloutStatus;
+    }
+
+    public void setRolloutStatus(String rolloutStatus) {
+        this.rolloutStatus = rolloutStatus;
+    }
+
+    public List<String> getPendingDependencies() {
+        return pendingDependencies;
+    }
+
+    public void setPendingDependencies(List<String> pendingDependencies) {
+        this.pendingDependencies = pendingDependencies;
+    }
+
     @Override
     public String toString() {
         return "PaymentHubDeploymentStatus{" +
@@ -65,6 +103,10 @@ public class PaymentHubDeploymentStatus {
                 ", errorMessage='" + errorMessage + '\'' +
                 ", lastAppliedImage='" + lastAppliedImage + '\'' +
                 ", ready=" + ready +
+                ", observedGeneration=" + observedGeneration +
+                ", updatedReplicas=" + updatedReplicas +
+                ", rolloutStatus='" + rolloutStatus + '\'' +
+                ", pendingDependencies=" + pendingDependencies +
                 '}';
     }
 
@@ -76,11 +118,16 @@ public class PaymentHubDeploymentStatus {
         return ready == that.ready &&
                Objects.equals(availableReplicas, that.availableReplicas) &&
                Objects.equals(errorMessage, that.errorMessage) &&
-               Objects.equals(lastAppliedImage, that.lastAppliedImage);
+               Objects.equals(lastAppliedImage, that.lastAppliedImage) &&
+               Objects.equals(observedGeneration, that.observedGeneration) &&
+               Objects.equals(updatedReplicas, that.updatedReplicas) &&
+               Objects.equals(rolloutStatus, that.rolloutStatus) &&
+               Objects.equals(pendingDependencies, that.pendingDependencies);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(availableReplicas, errorMessage, lastAppliedImage, ready);
+        return Objects.hash(availableReplicas, errorMessage, lastAppliedImage, ready, observedGeneration,
+                updatedReplicas, rolloutStatus, pendingDependencies);
     }
 }
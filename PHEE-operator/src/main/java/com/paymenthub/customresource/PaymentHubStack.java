@@ -0,0 +1,20 @@
+package com.paymenthub.customresource;
+
+// Kubernetes API and model annotations
+import io.fabric8.kubernetes.api.model.Namespaced;
+import io.fabric8.kubernetes.client.CustomResource;
+import io.fabric8.kubernetes.model.annotation.Group;
+import io.fabric8.kubernetes.model.annotation.Version;
+import io.fabric8.kubernetes.model.annotation.Plural;
+
+/**
+ * Custom resource definition for PaymentHubStack.
+ * 
+ * A PaymentHubStack declares a whole Payment Hub EE environment as a graph of components. Each component is rolled out
+ * as a PaymentHubDeployment owned by the stack, once the components it depends on are available.
+ */
+@Version("v1") // Specifies the API version
+@Group("gazelle.mifos.io") // Specifies the API group
+@Plural("paymenthubstacks") // Specifies the plural name of the custom resource
+public class PaymentHubStack extends CustomResource<PaymentHubStackSpec, PaymentHubStackStatus> implements Namespaced {
+}
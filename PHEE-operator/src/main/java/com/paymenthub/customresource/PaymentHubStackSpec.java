@@ -0,0 +1,111 @@
+package com.paymenthub.customresource;
+
+import java.util.*;
+
+/**
+ * Specification of a PaymentHubStack: the components of the environment and the components each of them depends on.
+ */
+public class PaymentHubStackSpec {
+    private List<Component> components;
+
+    public PaymentHubStackSpec() {
+    }
+
+    public PaymentHubStackSpec(List<Component> components) {
+        this.components = components;
+    }
+
+    public List<Component> getComponents() {
+        return components;
+    }
+
+    public void setComponents(List<Component> components) {
+        this.components = components;
+    }
+
+    @Override
+    public String toString() {
+        return "PaymentHubStackSpec{" +
+                "components=" + components +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PaymentHubStackSpec)) return false;
+        PaymentHubStackSpec that = (PaymentHubStackSpec) o;
+        return Objects.equals(getComponents(), that.getComponents());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getComponents());
+    }
+
+    /**
+     * A component of the stack, rolled out as the PaymentHubDeployment of the same name.
+     */
+    public static class Component {
+        private String name;
+        private List<String> dependsOn;
+        private PaymentHubDeploymentSpec spec;
+
+        public Component() {
+        }
+
+        public Component(String name, List<String> dependsOn, PaymentHubDeploymentSpec spec) {
+            this.name = name;
+            this.dependsOn = dependsOn;
+            this.spec = spec;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public List<String> getDependsOn() {
+            return dependsOn;
+        }
+
+        public void setDependsOn(List<String> dependsOn) {
+            this.dependsOn = dependsOn;
+        }
+
+        public PaymentHubDeploymentSpec getSpec() {
+            return spec;
+        }
+
+        public void setSpec(PaymentHubDeploymentSpec spec) {
+            this.spec = spec;
+        }
+
+        @Override
+        public String toString() {
+            return "Component{" +
+                    "name='" + name + '\'' +
+                    ", dependsOn=" + dependsOn +
+                    ", spec=" + spec +
+                    '}';
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Component)) return false;
+            Component component = (Component) o;
+            return Objects.equals(name, component.name) &&
+                Objects.equals(dependsOn, component.dependsOn) &&
+                Objects.equals(spec, component.spec);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, dependsOn, spec);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.paymenthub.customresource;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Represents the status of a PaymentHub stack.
+ * 
+ * This class aggregates the state of the stack's components: the overall phase, whether every component is available,
+ * the spec generation it reflects, the wave currently being rolled out, the number of available components, and the
+ * phase of each component. It provides getter and setter methods, as well as `toString()`, `equals()`, and `hashCode()`
+ * methods for object comparison and representation.
+ */
+public class PaymentHubStackStatus {
+    private String phase;
+    private boolean ready;
+    private Long observedGeneration;
+    private Integer currentWave;
+    private Integer waves;
+    private Integer availableComponents;
+    private Integer totalComponents;
+    private String errorMessage;
+    private List<ComponentStatus> components;
+
+    public PaymentHubStackStatus() {
+    }
+
+    public String getPhase() {
+        return phase;
+    }
+
+    public void setPhase(String phase) {
+        this.phase = phase;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void setReady(boolean ready) {
+        this.ready = ready;
+    }
+
+    public Long getObservedGeneration() {
+        return observedGeneration;
+    }
+
+    public void setObservedGeneration(Long observedGeneration) {
+        this.observedGeneration = observedGeneration;
+    }
+
+    public Integer getCurrentWave() {
+        return currentWave;
+    }
+
+    public void setCurrentWave(Integer currentWave) {
+        this.currentWave = currentWave;
+    }
+
+    public Integer getWaves() {
+        return waves;
+    }
+
+    public void setWaves(Integer waves) {
+        this.waves = waves;
+    }
+
+    public Integer getAvailableComponents() {
+        return availableComponents;
+    }
+
+    public void setAvailableComponents(Integer availableComponents) {
+        this.availableComponents = availableComponents;
+    }
+
+    public Integer getTotalComponents() {
+        return totalComponents;
+    }
+
+    public void setTotalComponents(Integer totalComponents) {
+        this.totalComponents = totalComponents;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    public List<ComponentStatus> getComponents() {
+        return components;
+    }
+
+    public void setComponents(List<ComponentStatus> components) {
+        this.components = components;
+    }
+
+    @Override
+    public String toString() {
+        return "PaymentHubStackStatus{" +
+                "phase='" + phase + '\'' +
+                ", ready=" + ready +
+                ", observedGeneration=" + observedGeneration +
+                ", currentWave=" + currentWave +
+                ", waves=" + waves +
+                ", availableComponents=" + availableComponents +
+                ", totalComponents=" + totalComponents +
+                ", errorMessage='" + errorMessage + '\'' +
+                ", components=" + components +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PaymentHubStackStatus)) return false;
+        PaymentHubStackStatus that = (PaymentHubStackStatus) o;
+        return ready == that.ready &&
+               Objects.equals(phase, that.phase) &&
+               Objects.equals(observedGeneration, that.observedGeneration) &&
+               Objects.equals(currentWave, that.currentWave) &&
+               Objects.equals(waves, that.waves) &&
+               Objects.equals(availableComponents, that.availableComponents) &&
+               Objects.equals(totalComponents, that.totalComponents) &&
+               Objects.equals(errorMessage, that.errorMessage) &&
+               Objects.equals(components, that.components);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(phase, ready, observedGeneration, currentWave, waves, availableComponents, totalComponents,
+                errorMessage, components);
+    }
+
+    /**
+     * The rollout state of a single component of the stack.
+     */
+    public static class ComponentStatus {
+        private String name;
+        private Integer wave;
+        private String phase;
+
+        public ComponentStatus() {
+        }
+
+        public ComponentStatus(String name, Integer wave, String phase) {
+            this.name = name;
+            this.wave = wave;
+            this.phase = phase;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Integer getWave() {
+            return wave;
+        }
+
+        public void setWave(Integer wave) {
+            this.wave = wave;
+        }
+
+        public String getPhase() {
+            return phase;
+        }
+
+        public void setPhase(String phase) {
+            this.phase = phase;
+        }
+
+        @Override
+        public String toString() {
+            return "ComponentStatus{" +
+                    "name='" + name + '\'' +
+                    ", wave=" + wave +
+                    ", phase='" + phase + '\'' +
+                    '}';
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ComponentStatus)) return false;
+            ComponentStatus that = (ComponentStatus) o;
+            return Objects.equals(name, that.name) &&
+                Objects.equals(wave, that.wave) &&
+                Objects.equals(phase, that.phase);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, wave, phase);
+        }
+    }
+}
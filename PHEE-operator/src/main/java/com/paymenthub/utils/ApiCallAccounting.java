@@ -0,0 +1,204 @@
+package com.paymenthub.utils;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-reconcile tally of the Kubernetes API requests made on behalf of one custom resource: requests per verb, bytes
+ * sent and received, and the time spent waiting for responses.
+ *
+ * An accounting is opened on the reconciler thread and is current on that thread until it is closed. Work handed to
+ * other threads during the reconcile, such as dependency graph steps, is attributed to it by wrapping the task with
+ * {@link #propagate(Runnable)}. {@link ApiCallMetricsInterceptor} looks up the current accounting when a request is
+ * sent and remembers its id for that request, so the response, which is handled on an HTTP client thread, is recorded
+ * against the same reconcile.
+ */
+public class ApiCallAccounting implements AutoCloseable {
+
+    private static final ThreadLocal<ApiCallAccounting> CURRENT = new ThreadLocal<>();
+    // Accountings that are still open, by id, so responses arriving on other threads can find theirs
+    private static final Map<String, ApiCallAccounting> OPEN = new ConcurrentHashMap<>();
+    private static final AtomicLong IDS = new AtomicLong();
+
+    private final String id;
+    private final String resourceName;
+    private final ApiCallAccounting previous;
+    private final long startNanos = System.nanoTime();
+    private final Map<String, LongAdder> requestsByVerb = new ConcurrentSkipListMap<>();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LongAdder apiNanos = new LongAdder();
+    private volatile long durationNanos = -1;
+
+    private ApiCallAccounting(String resourceName, ApiCallAccounting previous) {
+        this.id = Long.toString(IDS.incrementAndGet());
+        this.resourceName = resourceName;
+        this.previous = previous;
+    }
+
+    /**
+     * Opens an accounting for a reconcile of the given resource and makes it current on the calling thread.
+     *
+     * @param resource The custom resource being reconciled.
+     * @return The accounting, to be closed on the same thread when the reconcile ends.
+     */
+    public static ApiCallAccounting open(HasMetadata resource) {
+        String namespace = resource.getMetadata().getNamespace();
+        String name = namespace != null ? namespace + "/" + resource.getMetadata().getName() : resource.getMetadata().getName();
+        ApiCallAccounting accounting = new ApiCallAccounting(name, CURRENT.get());
+        OPEN.put(accounting.id, accounting);
+        CURRENT.set(accounting);
+        return accounting;
+    }
+
+    /**
+     * Returns the accounting current on the calling thread.
+     *
+     * @return The current accounting, or null if the thread is not working on a reconcile.
+     */
+    public static ApiCallAccounting current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Finds an open accounting by its id.
+     *
+     * @param id The id of the accounting.
+     * @return The accounting, or null if it was closed in the meantime.
+     */
+    static ApiCallAccounting lookup(String id) {
+        return OPEN.get(id);
+    }
+
+    /**
+     * Wraps a task so it runs with the accounting that is current on the calling thread, e.g. before handing it to an
+     * executor.
+     *
+     * @param task The task to wrap.
+     * @return The wrapped task, or the task itself if no accounting is current.
+     */
+    public static Runnable propagate(Runnable task) {
+        ApiCallAccounting accounting = CURRENT.get();
+        if (accounting == null) {
+            return task;
+        }
+        return () -> {
+            ApiCallAccounting outer = CURRENT.get();
+            CURRENT.set(accounting);
+            try {
+                task.run();
+            } finally {
+                if (outer == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(outer);
+                }
+            }
+        };
+    }
+
+    /**
+     * @return The id the interceptor remembers for the requests sent during the reconcile.
+     */
+    String getId() {
+        return id;
+    }
+
+    void recordRequest(String verb, long latencyNanos) {
+        requestsByVerb.computeIfAbsent(verb, v -> new LongAdder()).increment();
+        requests.increment();
+        apiNanos.add(latencyNanos);
+    }
+
+    void recordBytesSent(long bytes) {
+        bytesSent.add(bytes);
+    }
+
+    void recordBytesReceived(long bytes) {
+        bytesReceived.add(bytes);
+    }
+
+    /**
+     * @return The namespace and name of the custom resource, as {@code namespace/name}.
+     */
+    public String getResourceName() {
+        return resourceName;
+    }
+
+    /**
+     * @return The number of requests that received a response.
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * @return The bytes of request bodies sent.
+     */
+    public long getBytesSent() {
+        return bytesSent.sum();
+    }
+
+    /**
+     * @return The bytes of response bodies received.
+     */
+    public long getBytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    /**
+     * @return The summed latency of all requests. Requests sent in parallel overlap, so this can exceed the
+     *         reconcile duration.
+     */
+    public long getApiNanos() {
+        return apiNanos.sum();
+    }
+
+    /**
+     * @return How long the reconcile took, or how long it has been running if the accounting is still open.
+     */
+    public long getDurationNanos() {
+        long duration = durationNanos;
+        return duration >= 0 ? duration : System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Returns a one-line summary for the log, e.g.
+     * {@code 12 API calls (get=2, patch=10), 8431 bytes sent, 20114 bytes received, 85 ms API time in 40 ms}.
+     *
+     * @return The summary.
+     */
+    public String summary() {
+        StringBuilder verbs = new StringBuilder();
+        requestsByVerb.forEach((verb, count) -> verbs.append(verbs.length() == 0 ? "" : ", ").append(verb).append('=').append(count.sum()));
+        return getRequests() + " API calls (" + verbs + "), " + getBytesSent() + " bytes sent, " + getBytesReceived()
+                + " bytes received, " + TimeUnit.NANOSECONDS.toMillis(getApiNanos()) + " ms API time in "
+                + TimeUnit.NANOSECONDS.toMillis(getDurationNanos()) + " ms";
+    }
+
+    /**
+     * Stops attributing requests to this accounting and restores the accounting that was current when it was opened.
+     * Responses still in flight are only counted in the global metrics.
+     */
+    @Override
+    public void close() {
+        if (durationNanos < 0) {
+            durationNanos = System.nanoTime() - startNanos;
+        }
+        OPEN.remove(id);
+        if (CURRENT.get() == this) {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
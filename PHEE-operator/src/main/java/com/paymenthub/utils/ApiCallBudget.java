@@ -0,0 +1,72 @@
+package com.paymenthub.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Upper bound on the Kubernetes API traffic a single reconcile is expected to cause. A reconcile that goes over it is
+ * logged with a summary of its requests, which points at resources whose reconcile is unexpectedly expensive, e.g.
+ * because a dependent is rewritten on every pass.
+ */
+public class ApiCallBudget {
+
+    private static final Logger log = LoggerFactory.getLogger(ApiCallBudget.class);
+
+    private final int maxRequests;
+    private final long maxBytes;
+
+    /**
+     * @param maxRequests API requests allowed per reconcile, or 0 for no limit.
+     * @param maxBytes Request and response bytes allowed per reconcile, or 0 for no limit.
+     */
+    public ApiCallBudget(int maxRequests, long maxBytes) {
+        this.maxRequests = maxRequests;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Creates a budget that is never exceeded.
+     *
+     * @return An unlimited budget.
+     */
+    public static ApiCallBudget unlimited() {
+        return new ApiCallBudget(0, 0);
+    }
+
+    /**
+     * Creates a budget from the API_CALL_BUDGET_REQUESTS and API_CALL_BUDGET_BYTES environment variables.
+     *
+     * @return The configured budget.
+     */
+    public static ApiCallBudget fromEnvironment() {
+        return new ApiCallBudget(
+                ConfigUtil.getInt("API_CALL_BUDGET_REQUESTS", 0),
+                ConfigUtil.getLong("API_CALL_BUDGET_BYTES", 0));
+    }
+
+    /**
+     * Checks whether a reconcile went over the budget.
+     *
+     * @param accounting The API calls of the reconcile.
+     * @return true if the request count or the bytes moved exceed their limit.
+     */
+    public boolean isExceededBy(ApiCallAccounting accounting) {
+        return (maxRequests > 0 && accounting.getRequests() > maxRequests)
+                || (maxBytes > 0 && accounting.getBytesSent() + accounting.getBytesReceived() > maxBytes);
+    }
+
+    /**
+     * Logs the summary of a finished reconcile, as a warning if it went over the budget and at debug level otherwise.
+     *
+     * @param accounting The API calls of the reconcile.
+     */
+    public void check(ApiCallAccounting accounting) {
+        if (isExceededBy(accounting)) {
+            log.warn("Reconcile of {} exceeded the API call budget of {} requests and {} bytes: {}.",
+                    accounting.getResourceName(), maxRequests > 0 ? maxRequests : "unlimited",
+                    maxBytes > 0 ? maxBytes : "unlimited", accounting.summary());
+        } else if (log.isDebugEnabled()) {
+            log.debug("Reconcile of {} made {}.", accounting.getResourceName(), accounting.summary());
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.paymenthub.utils;
+
+import io.fabric8.kubernetes.client.http.AsyncBody;
+import io.fabric8.kubernetes.client.http.HttpRequest;
+import io.fabric8.kubernetes.client.http.HttpResponse;
+import io.fabric8.kubernetes.client.http.Interceptor;
+import io.fabric8.kubernetes.client.http.StandardHttpRequest;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Kubernetes client interceptor counting every API request by verb and resource kind, along with its latency and the
+ * bytes sent and received.
+ *
+ * The verb is derived from the HTTP method and URL the same way the API server does for its audit log: a GET on a
+ * collection is a list, or a watch with {@code watch=true}, a DELETE on a collection is a deletecollection, and a
+ * server-side apply is reported as apply rather than patch.
+ *
+ * Requests sent while an {@link ApiCallAccounting} is current are also attributed to that reconcile. The client builds
+ * a new request object after the interceptors' {@code before} hooks have run, and hands that object to
+ * {@link #consumer} on the sending thread before the request goes out and to {@link #after} on its own threads once
+ * the response arrives. The accounting id and the send time are therefore recorded in {@link #consumer}, keyed by the
+ * request object, and looked up again in {@link #after}; nothing is added to the request itself.
+ */
+public class ApiCallMetricsInterceptor implements Interceptor {
+
+    /**
+     * Name the interceptor is registered under on the HTTP client builder.
+     */
+    public static final String NAME = "api-call-metrics";
+
+    // Requests in flight, from sending to receiving the response headers. Requests do not override equals, so they are
+    // compared by identity, and weak keys drop requests that failed before any response arrived.
+    private final Map<HttpRequest, Tracking> inFlight = Collections.synchronizedMap(new WeakHashMap<>());
+    private final OperatorMetrics metrics;
+    private final String transport;
+
+    /**
+     * @param metrics The metrics the request counters are recorded in.
+     */
+    public ApiCallMetricsInterceptor(OperatorMetrics metrics) {
+        this(metrics, "default");
+    }
+
+    /**
+     * @param metrics The metrics the request counters are recorded in.
+     * @param transport The HTTP transport of the client, which request latencies are labelled with so transports can
+     *                  be compared.
+     */
+    public ApiCallMetricsInterceptor(OperatorMetrics metrics, String transport) {
+        this.metrics = metrics;
+        this.transport = transport;
+    }
+
+    @Override
+    public AsyncBody.Consumer<List<ByteBuffer>> consumer(AsyncBody.Consumer<List<ByteBuffer>> consumer, HttpRequest request) {
+        String resource = parsePath(request.uri())[0];
+        ApiCallAccounting current = ApiCallAccounting.current();
+        String accountingId = current != null ? current.getId() : null;
+        inFlight.put(request, new Tracking(accountingId, System.nanoTime()));
+
+        long bytesSent = contentLength(request);
+        if (bytesSent > 0) {
+            metrics.recordApiBytes("sent", resource, bytesSent);
+            if (current != null) {
+                current.recordBytesSent(bytesSent);
+            }
+        }
+
+        return new AsyncBody.Consumer<List<ByteBuffer>>() {
+            @Override
+            public void consume(List<ByteBuffer> value, AsyncBody asyncBody) throws Exception {
+                long bytes = 0;
+                for (ByteBuffer buffer : value) {
+                    bytes += buffer.remaining();
+                }
+                metrics.recordApiBytes("received", resource, bytes);
+                // Looked up per chunk, so a watch stream stops being attributed once its reconcile has ended
+                ApiCallAccounting accounting = accountingId != null ? ApiCallAccounting.lookup(accountingId) : null;
+                if (accounting != null) {
+                    accounting.recordBytesReceived(bytes);
+                }
+                consumer.consume(value, asyncBody);
+            }
+
+            @Override
+            public <U> U unwrap(Class<U> type) {
+                return consumer.unwrap(type);
+            }
+        };
+    }
+
+    @Override
+    public void after(HttpRequest request, HttpResponse<?> response, AsyncBody.Consumer<List<ByteBuffer>> consumer) {
+        String[] target = parsePath(request.uri());
+        String verb = verb(request, target);
+        Tracking tracking = inFlight.remove(request);
+        long latencyNanos = tracking != null ? System.nanoTime() - tracking.sentNanos : 0;
+        metrics.recordApiCall(verb, target[0], response.code(), transport, latencyNanos);
+        ApiCallAccounting accounting = tracking != null && tracking.accountingId != null
+                ? ApiCallAccounting.lookup(tracking.accountingId) : null;
+        if (accounting != null) {
+            accounting.recordRequest(verb, latencyNanos);
+        }
+    }
+
+    /**
+     * Returns the length of a request body without copying it: the byte count of a byte array or stream body, or the
+     * UTF-8 encoded length of a string body.
+     *
+     * @return The body length in bytes, or zero for a request without a body.
+     */
+    private static long contentLength(HttpRequest request) {
+        if (!(request instanceof StandardHttpRequest)) {
+            return 0;
+        }
+        StandardHttpRequest.BodyContent body = ((StandardHttpRequest) request).body();
+        if (body instanceof StandardHttpRequest.ByteArrayBodyContent) {
+            return ((StandardHttpRequest.ByteArrayBodyContent) body).getContent().length;
+        }
+        if (body instanceof StandardHttpRequest.InputStreamBodyContent) {
+            return Math.max(0, ((StandardHttpRequest.InputStreamBodyContent) body).getLength());
+        }
+        if (body instanceof StandardHttpRequest.StringBodyContent) {
+            return utf8Length(((StandardHttpRequest.StringBodyContent) body).getContent());
+        }
+        return 0;
+    }
+
+    private static long utf8Length(String value) {
+        long length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                // A surrogate pair encodes one code point in four bytes
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Splits a Kubernetes API path into the resource plural, followed by its subresource if any, and the object name.
+     *
+     * Paths have the form {@code /api/v1[/namespaces/{ns}]/{resource}[/{name}[/{subresource}]]} or
+     * {@code /apis/{group}/{version}[/namespaces/{ns}]/{resource}[/{name}[/{subresource}]]}; the namespaces resource
+     * itself is recognised by having no further segments after its name.
+     *
+     * @return The resource (or "other" for non-resource paths), and the name or null for a collection.
+     */
+    private static String[] parsePath(URI uri) {
+        String[] segments = uri.getPath().replaceAll("^/+", "").split("/");
+        int index;
+        if (segments.length >= 3 && "api".equals(segments[0])) {
+            index = 2;
+        } else if (segments.length >= 4 && "apis".equals(segments[0])) {
+            index = 3;
+        } else {
+            return new String[] {"other", null};
+        }
+        if ("namespaces".equals(segments[index]) && segments.length > index + 2) {
+            index += 2;
+        }
+        String resource = segments[index];
+        String name = segments.length > index + 1 ? segments[index + 1] : null;
+        String subresource = segments.length > index + 2 ? segments[index + 2] : null;
+        return new String[] {subresource != null ? resource + "/" + subresource : resource, name};
+    }
+
+    private static String verb(HttpRequest request, String[] target) {
+        boolean collection = target[1] == null;
+        String query = request.uri().getRawQuery();
+        switch (request.method()) {
+            case "GET":
+                if (query != null && query.contains("watch=true")) {
+                    return "watch";
+                }
+                return collection ? "list" : "get";
+            case "POST":
+                return "create";
+            case "PUT":
+                return "update";
+            case "PATCH":
+                String contentType = request.header("Content-Type");
+                return contentType != null && contentType.startsWith("application/apply-patch") ? "apply" : "patch";
+            case "DELETE":
+                return collection ? "deletecollection" : "delete";
+            default:
+                return request.method().toLowerCase();
+        }
+    }
+
+    /**
+     * The reconcile a request was sent for, if any, and when it was sent.
+     */
+    private static final class Tracking {
+
+        private final String accountingId;
+        private final long sentNanos;
+
+        private Tracking(String accountingId, long sentNanos) {
+            this.accountingId = accountingId;
+            this.sentNanos = sentNanos;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.paymenthub.utils;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.NonDeletingOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.Function;
+
+/**
+ * Utility class for applying the desired state of secondary resources using Kubernetes server-side apply.
+ */
+public class ApplyUtil {
+
+    private static final Logger log = LoggerFactory.getLogger(ApplyUtil.class);
+
+    /**
+     * Field manager recorded by the API server for every field applied by this operator.
+     */
+    public static final String FIELD_MANAGER = "ph-ee-operator";
+
+    /**
+     * Applies the desired resource with server-side apply, creating it if it does not exist yet. The object converges
+     * in a single request, and conflicting field ownership is forced so the operator stays the source of truth for the
+     * fields it renders.
+     *
+     * @param kubernetesClient The Kubernetes client used to interact with the Kubernetes API.
+     * @param desired The desired state of the resource.
+     * @return The resource as returned by the API server after the apply.
+     */
+    public static <R extends HasMetadata> R serverSideApply(KubernetesClient kubernetesClient, R desired) {
+        return kubernetesClient.resource(desired)
+                .fieldManager(FIELD_MANAGER)
+                .forceConflicts()
+                .serverSideApply();
+    }
+
+    /**
+     * Writes the desired state of a secondary resource unless the live object in the informer cache was already written
+     * from it, as told by their fingerprints. With server-side apply the resource is applied; otherwise a missing
+     * resource is created and an existing one is written with the given operation.
+     *
+     * @param kubernetesClient The Kubernetes client used to interact with the Kubernetes API.
+     * @param serverSideApply Whether to write the resource with server-side apply.
+     * @param desired The desired state of the resource, stamped by {@link FingerprintUtil#addFingerprint}.
+     * @param cached The live resource from the informer cache, or null if it does not exist.
+     * @param update The write used for an existing resource without server-side apply, such as
+     *               {@code NonDeletingOperation::patch} or {@code NonDeletingOperation::update}.
+     * @return true if the resource was written, false if it was up-to-date.
+     */
+    public static <R extends HasMetadata> boolean applyIfChanged(KubernetesClient kubernetesClient, boolean serverSideApply,
+                                                                 R desired, R cached,
+                                                                 Function<NonDeletingOperation<R>, R> update) {
+        String kind = desired.getKind();
+        String name = desired.getMetadata().getName();
+        if (FingerprintUtil.matches(cached, desired)) {
+            log.info("{} is up-to-date: {}", kind, name);
+            return false;
+        }
+
+        if (serverSideApply) {
+            serverSideApply(kubernetesClient, desired);
+            log.info("Applied {}: {}", kind, name);
+        } else if (cached == null) {
+            kubernetesClient.resource(desired).createOr(update);
+            log.info("Created new {}: {}", kind, name);
+        } else {
+            update.apply(kubernetesClient.resource(desired));
+            log.info("Updated existing {}: {}", kind, name);
+        }
+        return true;
+    }
+}
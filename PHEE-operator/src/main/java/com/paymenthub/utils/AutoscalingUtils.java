@@ -0,0 +1,236 @@
+package com.paymenthub.utils;
+
+import io.fabric8.kubernetes.api.model.FieldsV1;
+import io.fabric8.kubernetes.api.model.LabelSelectorBuilder;
+import io.fabric8.kubernetes.api.model.ManagedFieldsEntry;
+import io.fabric8.kubernetes.api.model.Quantity;
+import io.fabric8.kubernetes.api.model.apps.Deployment;
+import io.fabric8.kubernetes.api.model.autoscaling.v2.*;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.NonDeletingOperation;
+import io.javaoperatorsdk.operator.api.reconciler.Context;
+
+import com.paymenthub.customresource.PaymentHubDeployment;
+import com.paymenthub.customresource.PaymentHubDeploymentSpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Reconciles the {@code autoscaling/v2} HorizontalPodAutoscaler rendered from the {@code autoscaling} section of the
+ * custom resource. The HorizontalPodAutoscaler targets the Deployment of the same name and is owned by the custom
+ * resource, so the garbage collector removes it together with the custom resource.
+ */
+public class AutoscalingUtils {
+
+    private static final Logger log = LoggerFactory.getLogger(AutoscalingUtils.class);
+    private final KubernetesClient kubernetesClient;
+    private final boolean serverSideApply;
+
+    public AutoscalingUtils(KubernetesClient kubernetesClient, boolean serverSideApply) {
+        this.kubernetesClient = kubernetesClient;
+        this.serverSideApply = serverSideApply;
+    }
+
+    /**
+     * Checks whether the replica count of the custom resource's Deployment is managed by a HorizontalPodAutoscaler.
+     *
+     * @param resource The custom resource.
+     * @return true if the autoscaling section is present and enabled, false otherwise.
+     */
+    public static boolean isEnabled(PaymentHubDeployment resource) {
+        PaymentHubDeploymentSpec.Autoscaling autoscaling = resource.getSpec().getAutoscaling();
+        return autoscaling != null && Boolean.TRUE.equals(autoscaling.getEnabled());
+    }
+
+    /**
+     * Returns the replica count a Deployment managed by a HorizontalPodAutoscaler starts with, before the
+     * HorizontalPodAutoscaler has scaled it: {@code minReplicas}, or else {@code replicas}, or else one.
+     *
+     * @param resource The custom resource.
+     * @return The initial replica count.
+     */
+    public static int minReplicas(PaymentHubDeployment resource) {
+        Integer minReplicas = resource.getSpec().getAutoscaling().getMinReplicas();
+        if (minReplicas == null) {
+            minReplicas = resource.getSpec().getReplicas();
+        }
+        return minReplicas != null && minReplicas > 0 ? minReplicas : 1;
+    }
+
+    /**
+     * Checks whether a field manager other than the operator's, such as the HorizontalPodAutoscaler controller writing
+     * through the scale subresource, owns {@code spec.replicas} of a Deployment. Until one does, the operator is the
+     * only owner and a server-side apply without the field would remove it, resetting the Deployment to one replica.
+     *
+     * @param deployment The cached Deployment.
+     * @return true if another field manager owns the replica count, false otherwise.
+     */
+    public static boolean isReplicasOwnedByOtherManager(Deployment deployment) {
+        List<ManagedFieldsEntry> managedFields = deployment.getMetadata().getManagedFields();
+        if (managedFields == null) {
+            return false;
+        }
+        for (ManagedFieldsEntry entry : managedFields) {
+            if (!ApplyUtil.FIELD_MANAGER.equals(entry.getManager()) && ownsReplicas(entry.getFieldsV1())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean ownsReplicas(FieldsV1 fields) {
+        if (fields == null || fields.getAdditionalProperties() == null) {
+            return false;
+        }
+        Object spec = fields.getAdditionalProperties().get("f:spec");
+        return spec instanceof Map && ((Map<?, ?>) spec).containsKey("f:replicas");
+    }
+
+    /**
+     * Reconciles the HorizontalPodAutoscaler for the given custom resource.
+     *
+     * @param resource The custom resource specifying the autoscaling configuration.
+     * @param context The reconciliation context providing access to the informer caches.
+     */
+    public void reconcileHorizontalPodAutoscaler(PaymentHubDeployment resource, Context<PaymentHubDeployment> context) {
+        String hpaName = resource.getMetadata().getName() + "-hpa";
+        log.info("Reconciling HorizontalPodAutoscaler for resource: {}", resource.getMetadata().getName());
+        HorizontalPodAutoscaler hpa = FingerprintUtil.addFingerprint(createHorizontalPodAutoscaler(resource, hpaName));
+        log.debug("Created HorizontalPodAutoscaler spec: {}", hpa);
+
+        HorizontalPodAutoscaler existingHpa = InformerCacheUtil.getCachedResource(context, HorizontalPodAutoscaler.class,
+                hpaName, resource.getMetadata().getNamespace());
+        ApplyUtil.applyIfChanged(kubernetesClient, serverSideApply, hpa, existingHpa, NonDeletingOperation::update);
+    }
+
+    /**
+     * Creates an {@code autoscaling/v2} HorizontalPodAutoscaler object based on the custom resource specifications.
+     * Without any metric in the spec, the HorizontalPodAutoscaler falls back to the Kubernetes default of 80% average
+     * CPU utilization.
+     *
+     * @param resource The custom resource specifying the autoscaling configuration.
+     * @param hpaName The name of the HorizontalPodAutoscaler.
+     * @return The created HorizontalPodAutoscaler object.
+     */
+    HorizontalPodAutoscaler createHorizontalPodAutoscaler(PaymentHubDeployment resource, String hpaName) {
+        PaymentHubDeploymentSpec.Autoscaling autoscaling = resource.getSpec().getAutoscaling();
+
+        List<MetricSpec> metrics = new ArrayList<>();
+        if (autoscaling.getTargetCPUUtilizationPercentage() != null) {
+            metrics.add(resourceMetric("cpu", autoscaling.getTargetCPUUtilizationPercentage()));
+        }
+        if (autoscaling.getTargetMemoryUtilizationPercentage() != null) {
+            metrics.add(resourceMetric("memory", autoscaling.getTargetMemoryUtilizationPercentage()));
+        }
+        if (autoscaling.getMetrics() != null) {
+            autoscaling.getMetrics().stream()
+                    .filter(Objects::nonNull)
+                    .map(AutoscalingUtils::customMetric)
+                    .forEach(metrics::add);
+        }
+
+        Map<String, String> labels = new HashMap<>();
+        labels.put("app", resource.getMetadata().getName());
+        labels.put("app.kubernetes.io/managed-by", "ph-ee-operator");
+
+        return new HorizontalPodAutoscalerBuilder()
+                .withNewMetadata()
+                    .withName(hpaName)
+                    .withNamespace(resource.getMetadata().getNamespace())
+                    .withLabels(labels)
+                    .addToLabels(OwnerReferenceUtils.createOwnerLabels(resource))
+                    .withOwnerReferences(OwnerReferenceUtils.createOwnerReferences(resource))
+                .endMetadata()
+                .withNewSpec()
+                    .withNewScaleTargetRef()
+                        .withApiVersion("apps/v1")
+                        .withKind("Deployment")
+                        .withName(resource.getMetadata().getName())
+                    .endScaleTargetRef()
+                    .withMinReplicas(minReplicas(resource))
+                    .withMaxReplicas(autoscaling.getMaxReplicas())
+                    .withMetrics(metrics.isEmpty() ? null : metrics)
+                    .withBehavior(behavior(autoscaling.getBehavior()))
+                .endSpec()
+                .build();
+    }
+
+    private static MetricSpec resourceMetric(String name, int averageUtilization) {
+        return new MetricSpecBuilder()
+                .withType("Resource")
+                .withNewResource()
+                    .withName(name)
+                    .withNewTarget()
+                        .withType("Utilization")
+                        .withAverageUtilization(averageUtilization)
+                    .endTarget()
+                .endResource()
+                .build();
+    }
+
+    private static MetricSpec customMetric(PaymentHubDeploymentSpec.Autoscaling.Metric metric) {
+        MetricIdentifier identifier = new MetricIdentifierBuilder()
+                .withName(metric.getName())
+                .withSelector(metric.getSelector() == null || metric.getSelector().isEmpty() ? null
+                        : new LabelSelectorBuilder().withMatchLabels(metric.getSelector()).build())
+                .build();
+
+        // A total value takes precedence over an average value per pod
+        MetricTarget target = metric.getValue() != null
+                ? new MetricTargetBuilder().withType("Value").withValue(new Quantity(metric.getValue())).build()
+                : new MetricTargetBuilder().withType("AverageValue").withAverageValue(
+                        metric.getAverageValue() != null ? new Quantity(metric.getAverageValue()) : null).build();
+
+        MetricSpecBuilder builder = new MetricSpecBuilder().withType(metric.getType());
+        if ("Pods".equals(metric.getType())) {
+            builder.withNewPods().withMetric(identifier).withTarget(target).endPods();
+        } else if ("Object".equals(metric.getType())) {
+            PaymentHubDeploymentSpec.Autoscaling.Metric.DescribedObject describedObject = metric.getDescribedObject();
+            builder.withNewObject()
+                    .withMetric(identifier)
+                    .withTarget(target)
+                    .withNewDescribedObject()
+                        .withApiVersion(describedObject != null ? describedObject.getApiVersion() : null)
+                        .withKind(describedObject != null ? describedObject.getKind() : null)
+                        .withName(describedObject != null ? describedObject.getName() : null)
+                    .endDescribedObject()
+                    .endObject();
+        } else {
+            builder.withNewExternal().withMetric(identifier).withTarget(target).endExternal();
+        }
+        return builder.build();
+    }
+
+    private static HorizontalPodAutoscalerBehavior behavior(PaymentHubDeploymentSpec.Autoscaling.Behavior behavior) {
+        if (behavior == null) {
+            return null;
+        }
+        return new HorizontalPodAutoscalerBehaviorBuilder()
+                .withScaleUp(scalingRules(behavior.getScaleUp()))
+                .withScaleDown(scalingRules(behavior.getScaleDown()))
+                .build();
+    }
+
+    private static HPAScalingRules scalingRules(PaymentHubDeploymentSpec.Autoscaling.Behavior.ScalingRules rules) {
+        if (rules == null) {
+            return null;
+        }
+        List<HPAScalingPolicy> policies = rules.getPolicies() == null ? null : rules.getPolicies().stream()
+                .filter(Objects::nonNull)
+                .map(policy -> new HPAScalingPolicyBuilder()
+                        .withType(policy.getType())
+                        .withValue(policy.getValue())
+                        .withPeriodSeconds(policy.getPeriodSeconds())
+                        .build())
+                .collect(Collectors.toList());
+        return new HPAScalingRulesBuilder()
+                .withStabilizationWindowSeconds(rules.getStabilizationWindowSeconds())
+                .withSelectPolicy(rules.getSelectPolicy())
+                .withPolicies(policies)
+                .build();
+    }
+}
@@ -0,0 +1,100 @@
+package com.paymenthub.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Utility class for reading operator settings from environment variables at startup.
+ */
+public class ConfigUtil {
+
+    private static final Logger log = LoggerFactory.getLogger(ConfigUtil.class);
+
+    /**
+     * Reads a boolean setting from the environment.
+     *
+     * @param name The name of the environment variable.
+     * @param defaultValue The value to use when the variable is not set.
+     * @return The configured value, or the default if it is not set.
+     */
+    public static boolean getBoolean(String name, boolean defaultValue) {
+        String value = getString(name, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    /**
+     * Reads an integer setting from the environment.
+     *
+     * @param name The name of the environment variable.
+     * @param defaultValue The value to use when the variable is not set or is not a valid integer.
+     * @return The configured value, or the default if it is not set.
+     */
+    public static int getInt(String name, int defaultValue) {
+        String value = getString(name, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            log.warn("Invalid integer value '{}' for {}, using default {}.", value, name, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Reads a long integer setting from the environment.
+     *
+     * @param name The name of the environment variable.
+     * @param defaultValue The value to use when the variable is not set or is not a valid integer.
+     * @return The configured value, or the default if it is not set.
+     */
+    public static long getLong(String name, long defaultValue) {
+        String value = getString(name, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            log.warn("Invalid integer value '{}' for {}, using default {}.", value, name, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Reads a decimal setting from the environment.
+     *
+     * @param name The name of the environment variable.
+     * @param defaultValue The value to use when the variable is not set or is not a valid number.
+     * @return The configured value, or the default if it is not set.
+     */
+    public static double getDouble(String name, double defaultValue) {
+        String value = getString(name, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            log.warn("Invalid decimal value '{}' for {}, using default {}.", value, name, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Reads a string setting from the environment.
+     *
+     * @param name The name of the environment variable.
+     * @param defaultValue The value to use when the variable is not set or blank.
+     * @return The configured value, or the default if it is not set.
+     */
+    public static String getString(String name, String defaultValue) {
+        String value = System.getenv(name);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        log.info("Using configured value for {}: {}", name, value.trim());
+        return value.trim();
+    }
+}
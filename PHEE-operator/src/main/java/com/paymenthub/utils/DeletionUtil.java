@@ -1,15 +1,28 @@
 package com.paymenthub.utils;
 
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.Resource;
+import io.fabric8.kubernetes.api.model.DeletionPropagation;
+import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.api.model.Service; 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.paymenthub.customresource.PaymentHubDeployment;
 import java.util.List; 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
 
 
 /**
  * Utility class for handling the deletion of Kubernetes resources associated with a custom resource.
+ *
+ * Objects are deleted with a single DELETE each, using background propagation so the garbage collector removes their
+ * own dependents (e.g. the ReplicaSets and Pods of a Deployment) asynchronously. Objects that are already gone are
+ * skipped without an error, so no GET is needed beforehand.
+ *
+ * Besides the per-object methods, {@link #deleteByLabels} removes every object of a kind that carries the
+ * {@link OwnerReferenceUtils#OWNER_UID_LABEL} of a custom resource with one collection DELETE.
  */
 public class DeletionUtil {
 
@@ -26,12 +39,7 @@ public class DeletionUtil {
         String name = resource.getMetadata().getName();
 
         // Delete Deployment
-        if (kubernetesClient.apps().deployments().inNamespace(namespace).withName(name).get() != null) {
-            kubernetesClient.apps().deployments().inNamespace(namespace).withName(name).delete();
-            log.info("Deleted Deployment: {}", name);
-        } else {
-            log.warn("Deployment {} not found, skipping deletion.", name);
-        }
+        delete(kubernetesClient.apps().deployments().inNamespace(namespace).withName(name), "Deployment", name);
 
         // Delete all RBAC-related resources
         deleteRbacResources(kubernetesClient, resource);
@@ -46,6 +54,8 @@ public class DeletionUtil {
         deleteIngressResources(kubernetesClient, resource);
 
         deleteService(kubernetesClient, resource);
+
+        deleteHorizontalPodAutoscaler(kubernetesClient, resource);
     }
 
     /**
@@ -61,48 +71,51 @@ public class DeletionUtil {
         String saName = name + "-sa";
         String roleName = name + "-role";
         String roleBindingName = name + "-rolebinding";
-        String clusterRoleName = name + "-clusterrole";
-        String clusterRoleBindingName = name + "-clusterrolebinding";
 
         // Delete ServiceAccount
-        if (kubernetesClient.serviceAccounts().inNamespace(namespace).withName(saName).get() != null) {
-            kubernetesClient.serviceAccounts().inNamespace(namespace).withName(saName).delete();
-            log.info("Deleted ServiceAccount: {}", saName);
-        } else {
-            log.warn("ServiceAccount {} not found, skipping deletion.", saName);
-        }
+        delete(kubernetesClient.serviceAccounts().inNamespace(namespace).withName(saName), "ServiceAccount", saName);
 
         // Delete Role
-        if (kubernetesClient.rbac().roles().inNamespace(namespace).withName(roleName).get() != null) {
-            kubernetesClient.rbac().roles().inNamespace(namespace).withName(roleName).delete();
-            log.info("Deleted Role: {}", roleName);
-        } else {
-            log.warn("Role {} not found, skipping deletion.", roleName);
-        }
+        delete(kubernetesClient.rbac().roles().inNamespace(namespace).withName(roleName), "Role", roleName);
 
         // Delete RoleBinding
-        if (kubernetesClient.rbac().roleBindings().inNamespace(namespace).withName(roleBindingName).get() != null) {
-            kubernetesClient.rbac().roleBindings().inNamespace(namespace).withName(roleBindingName).delete();
-            log.info("Deleted RoleBinding: {}", roleBindingName);
-        } else {
-            log.warn("RoleBinding {} not found, skipping deletion.", roleBindingName);
-        }
+        delete(kubernetesClient.rbac().roleBindings().inNamespace(namespace).withName(roleBindingName), "RoleBinding", roleBindingName);
 
-        // Delete ClusterRole
-        if (kubernetesClient.rbac().clusterRoles().withName(clusterRoleName).get() != null) {
-            kubernetesClient.rbac().clusterRoles().withName(clusterRoleName).delete();
-            log.info("Deleted ClusterRole: {}", clusterRoleName);
-        } else {
-            log.warn("ClusterRole {} not found, skipping deletion.", clusterRoleName);
+        deleteClusterScopedRbacResources(kubernetesClient, resource);
+    }
+
+    /**
+     * Deletes the ClusterRole and ClusterRoleBinding associated with the specified custom resource. Cluster-scoped
+     * objects cannot carry an owner reference to a namespaced custom resource, so the garbage collector never removes
+     * them and they must be deleted explicitly, also when the custom resource itself is deleted. They are selected by
+     * the owner UID label, so objects of a custom resource with the same name in another namespace are never touched.
+     * 
+     * @param kubernetesClient The Kubernetes client used to interact with the Kubernetes API.
+     * @param resource The custom resource whose cluster-scoped RBAC resources are to be deleted.
+     */
+    public static void deleteClusterScopedRbacResources(KubernetesClient kubernetesClient, PaymentHubDeployment resource) {
+        String uid = resource.getMetadata().getUid();
+        if (uid == null) {
+            // Selecting by the label without a value would match the objects of every custom resource
+            log.warn("{} has no UID, skipping deletion of its cluster-scoped RBAC objects.", resource.getMetadata().getName());
+            return;
         }
 
         // Delete ClusterRoleBinding
-        if (kubernetesClient.rbac().clusterRoleBindings().withName(clusterRoleBindingName).get() != null) {
-            kubernetesClient.rbac().clusterRoleBindings().withName(clusterRoleBindingName).delete();
-            log.info("Deleted ClusterRoleBinding: {}", clusterRoleBindingName);
-        } else {
-            log.warn("ClusterRoleBinding {} not found, skipping deletion.", clusterRoleBindingName);
-        }
+        int bindings = kubernetesClient.rbac().clusterRoleBindings()
+                .withLabel(OwnerReferenceUtils.OWNER_UID_LABEL, uid)
+                .withPropagationPolicy(DeletionPropagation.BACKGROUND)
+                .delete()
+                .size();
+
+        // Delete ClusterRole
+        int roles = kubernetesClient.rbac().clusterRoles()
+                .withLabel(OwnerReferenceUtils.OWNER_UID_LABEL, uid)
+                .withPropagationPolicy(DeletionPropagation.BACKGROUND)
+                .delete()
+                .size();
+        log.info("Deleted {} ClusterRoleBinding(s) and {} ClusterRole(s) owned by {} in namespace {}", bindings, roles,
+                resource.getMetadata().getName(), resource.getMetadata().getNamespace());
     }
 
     /**
@@ -117,12 +130,7 @@ public class DeletionUtil {
         String secretName = name + "-secret";
 
         // Delete Secret
-        if (kubernetesClient.secrets().inNamespace(namespace).withName(secretName).get() != null) {
-            kubernetesClient.secrets().inNamespace(namespace).withName(secretName).delete();
-            log.info("Deleted Secret: {}", secretName);
-        } else {
-            log.warn("Secret {} not found, skipping deletion.", secretName);
-        }
+        delete(kubernetesClient.secrets().inNamespace(namespace).withName(secretName), "Secret", secretName);
     }
 
     /**
@@ -137,12 +145,7 @@ public class DeletionUtil {
         String configMapName = name + "-configmap";
 
         // Delete ConfigMap
-        if (kubernetesClient.configMaps().inNamespace(namespace).withName(configMapName).get() != null) {
-            kubernetesClient.configMaps().inNamespace(namespace).withName(configMapName).delete();
-            log.info("Deleted ConfigMap: {}", configMapName);
-        } else {
-            log.warn("ConfigMap {} not found, skipping deletion.", configMapName);
-        }
+        delete(kubernetesClient.configMaps().inNamespace(namespace).withName(configMapName), "ConfigMap", configMapName);
     }
 
     /**
@@ -157,12 +160,23 @@ public class DeletionUtil {
         String ingressName = name + "-ingress";
 
         // Delete Ingress
-        if (kubernetesClient.network().v1().ingresses().inNamespace(namespace).withName(ingressName).get() != null) {
-            kubernetesClient.network().v1().ingresses().inNamespace(namespace).withName(ingressName).delete();
-            log.info("Deleted Ingress: {}", ingressName);
-        } else {
-            log.warn("Ingress {} not found, skipping deletion.", ingressName);
-        }
+        delete(kubernetesClient.network().v1().ingresses().inNamespace(namespace).withName(ingressName), "Ingress", ingressName);
+    }
+
+    /**
+     * Deletes the HorizontalPodAutoscaler associated with the specified custom resource.
+     * 
+     * @param kubernetesClient The Kubernetes client used to interact with the Kubernetes API.
+     * @param resource The custom resource whose HorizontalPodAutoscaler is to be deleted.
+     */
+    public static void deleteHorizontalPodAutoscaler(KubernetesClient kubernetesClient, PaymentHubDeployment resource) {
+        String namespace = resource.getMetadata().getNamespace();
+        String name = resource.getMetadata().getName();
+        String hpaName = name + "-hpa";
+
+        // Delete HorizontalPodAutoscaler
+        delete(kubernetesClient.autoscaling().v2().horizontalPodAutoscalers().inNamespace(namespace).withName(hpaName),
+                "HorizontalPodAutoscaler", hpaName);
     }
 
     /**
@@ -183,26 +197,81 @@ public class DeletionUtil {
         if (services != null && !services.isEmpty()) {
             for (com.paymenthub.customresource.PaymentHubDeploymentSpec.Service service : services) {
                 String serviceName = service.getName(); // Use fully qualified name for custom Service class
-                
-                // Check if the service exists in the namespace
-                io.fabric8.kubernetes.api.model.Service existingService = kubernetesClient.services()
-                        .inNamespace(namespace)
-                        .withName(serviceName)
-                        .get();
-
-                if (existingService != null) {
-                    // Delete the service if it exists
-                    kubernetesClient.services()
-                            .inNamespace(namespace)
-                            .withName(serviceName)
-                            .delete();
-                    log.info("Deleted Service: {}", serviceName);
-                } else {
-                    log.warn("Service {} not found, skipping deletion.", serviceName);
-                }
+                delete(kubernetesClient.services().inNamespace(namespace).withName(serviceName), "Service", serviceName);
             }
         } else {
             log.warn("No services found in the spec, skipping service deletion.");
         }
     }
+
+    /**
+     * Deletes every namespaced object of the given kinds that belongs to the custom resource with one collection
+     * DELETE per kind, selected by the {@link OwnerReferenceUtils#OWNER_UID_LABEL} label. The kinds are deleted
+     * concurrently on the given executor.
+     * 
+     * @param kubernetesClient The Kubernetes client used to interact with the Kubernetes API.
+     * @param resource The custom resource whose associated resources are to be deleted.
+     * @param executorService The executor the per-kind deletions are run on.
+     * @param kinds The namespaced resource kinds to delete.
+     */
+    public static void deleteByLabels(KubernetesClient kubernetesClient, PaymentHubDeployment resource,
+                                      ExecutorService executorService, List<Class<? extends HasMetadata>> kinds) {
+        CompletableFuture<?>[] deletions = kinds.stream()
+                .map(kind -> CompletableFuture.runAsync(
+                        ApiCallAccounting.propagate(() -> deleteByLabels(kubernetesClient, resource, kind)), executorService))
+                .toArray(CompletableFuture<?>[]::new);
+        try {
+            CompletableFuture.allOf(deletions).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Bulk deletion failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Deletes every namespaced object of one kind that belongs to the custom resource with a single collection DELETE,
+     * selected by the owner UID label. The {@code app} label is copied from the spec and may be set on objects the
+     * operator does not own, so it is not used to select.
+     * 
+     * @param kubernetesClient The Kubernetes client used to interact with the Kubernetes API.
+     * @param resource The custom resource whose associated resources are to be deleted.
+     * @param kind The namespaced resource kind to delete.
+     */
+    public static void deleteByLabels(KubernetesClient kubernetesClient, PaymentHubDeployment resource,
+                                      Class<? extends HasMetadata> kind) {
+        String namespace = resource.getMetadata().getNamespace();
+        String uid = resource.getMetadata().getUid();
+        if (uid == null) {
+            // Selecting by the label without a value would match the dependents of every custom resource
+            log.warn("{} has no UID, skipping deletion of its {} objects.", resource.getMetadata().getName(),
+                    HasMetadata.getKind(kind));
+            return;
+        }
+        int deleted = kubernetesClient.resources(kind)
+                .inNamespace(namespace)
+                .withLabel(OwnerReferenceUtils.OWNER_UID_LABEL, uid)
+                .withPropagationPolicy(DeletionPropagation.BACKGROUND)
+                .delete()
+                .size();
+        log.info("Deleted {} {} object(s) owned by {} in namespace {}", deleted, HasMetadata.getKind(kind),
+                resource.getMetadata().getName(), namespace);
+    }
+
+    /**
+     * Deletes a single object with background propagation.
+     * 
+     * @param object The object to delete.
+     * @param kind The kind of the object, used for logging.
+     * @param name The name of the object, used for logging.
+     */
+    private static <T extends HasMetadata> void delete(Resource<T> object, String kind, String name) {
+        if (object.withPropagationPolicy(DeletionPropagation.BACKGROUND).delete().isEmpty()) {
+            log.warn("{} {} not found, skipping deletion.", kind, name);
+        } else {
+            log.info("Deleted {}: {}", kind, name);
+        }
+    }
 }
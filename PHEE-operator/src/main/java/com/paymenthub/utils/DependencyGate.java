@@ -0,0 +1,291 @@
+package com.paymenthub.utils;
+
+import com.paymenthub.customresource.PaymentHubDeployment;
+import com.paymenthub.customresource.PaymentHubDeploymentSpec;
+import io.fabric8.kubernetes.api.model.discovery.v1.Endpoint;
+import io.fabric8.kubernetes.api.model.discovery.v1.EndpointSlice;
+import io.javaoperatorsdk.operator.api.reconciler.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Checks whether the dependencies declared in {@code spec.dependsOn} of a custom resource are ready, so its Deployment
+ * is only scaled up from zero once they are.
+ *
+ * A Service dependency is ready once one of its EndpointSlices, read from the informer cache, has a ready endpoint, so
+ * it costs no API request and a change to the endpoints triggers a reconciliation of the waiting custom resources. A
+ * host and port dependency is checked by opening a TCP connection from the operator; nothing announces when such a
+ * target comes up, so a waiting custom resource is rechecked periodically.
+ *
+ * A host without a dot is resolved relative to the namespace of the custom resource, as it would be from its pods,
+ * rather than from the operator's own namespace. TCP checks run on a separate thread pool and a reconciliation only
+ * reads the last result, starting a new check when that result is older than the recheck interval, so a slow or
+ * unreachable target never blocks a reconciler thread for the connect timeout. A target that has not been checked yet
+ * counts as not ready.
+ *
+ * A custom resource without {@code dependsOn} that still sets the deprecated {@code initContainerEnabled} waits for
+ * {@code operationsmysql:3306}, the database its {@code wait-db} init container used to wait for.
+ */
+public class DependencyGate {
+
+    private static final Logger log = LoggerFactory.getLogger(DependencyGate.class);
+
+    /**
+     * Name of the informer index that maps {@code namespace/service} to the EndpointSlices of a Service, and of the
+     * primary cache index that maps it to the custom resources depending on the Service.
+     */
+    public static final String SERVICE_INDEX = "dependencyService";
+
+    // Database the wait-db init container enabled by initContainerEnabled used to wait for
+    static final PaymentHubDeploymentSpec.Dependency LEGACY_INIT_CONTAINER_DEPENDENCY =
+            new PaymentHubDeploymentSpec.Dependency(null, "operationsmysql", 3306);
+
+    // Label the EndpointSlice controller sets to the name of the Service a slice belongs to
+    private static final String SERVICE_NAME_LABEL = "kubernetes.io/service-name";
+
+    private final int connectTimeoutMillis;
+    private final Duration recheckInterval;
+    // Last TCP check result per host:port, dropped once no custom resource has asked for it for a few recheck intervals
+    private final Map<String, Probe> probes = new ConcurrentHashMap<>();
+    private final ExecutorService probeExecutor = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "dependency-probe");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * @param connectTimeoutMillis How long a TCP check waits for a connection before the target counts as not ready.
+     * @param recheckInterval How often a custom resource waiting for its dependencies is checked again.
+     */
+    public DependencyGate(int connectTimeoutMillis, Duration recheckInterval) {
+        this.connectTimeoutMillis = Math.max(1, connectTimeoutMillis);
+        this.recheckInterval = recheckInterval;
+    }
+
+    /**
+     * Creates a dependency gate from the DEPENDENCY_CONNECT_TIMEOUT_MILLIS and DEPENDENCY_RECHECK_SECONDS environment
+     * variables.
+     *
+     * @return The configured dependency gate.
+     */
+    public static DependencyGate fromEnvironment() {
+        return new DependencyGate(
+                ConfigUtil.getInt("DEPENDENCY_CONNECT_TIMEOUT_MILLIS", 1000),
+                Duration.ofSeconds(ConfigUtil.getInt("DEPENDENCY_RECHECK_SECONDS", 10)));
+    }
+
+    /**
+     * Creates a dependency gate with a one second connect timeout, rechecking every ten seconds.
+     *
+     * @return The default dependency gate.
+     */
+    public static DependencyGate defaults() {
+        return new DependencyGate(1000, Duration.ofSeconds(10));
+    }
+
+    /**
+     * @return How often a custom resource waiting for its dependencies is checked again.
+     */
+    public Duration getRecheckInterval() {
+        return recheckInterval;
+    }
+
+    /**
+     * Index function for {@link #SERVICE_INDEX} on the EndpointSlice informer.
+     *
+     * @param endpointSlice The cached EndpointSlice to index.
+     * @return The key of the Service the slice belongs to, or nothing for slices not managed for a Service.
+     */
+    public static List<String> endpointSliceServiceKeys(EndpointSlice endpointSlice) {
+        Map<String, String> labels = endpointSlice.getMetadata().getLabels();
+        String service = labels != null ? labels.get(SERVICE_NAME_LABEL) : null;
+        return service != null
+                ? Collections.singletonList(serviceKey(endpointSlice.getMetadata().getNamespace(), service))
+                : Collections.emptyList();
+    }
+
+    /**
+     * Index function for {@link #SERVICE_INDEX} on the primary cache, so an EndpointSlice event is mapped to the custom
+     * resources depending on its Service without scanning them all.
+     *
+     * @param resource The cached custom resource to index.
+     * @return The keys of the Services the custom resource depends on.
+     */
+    public static List<String> dependencyServiceKeys(PaymentHubDeployment resource) {
+        return dependencies(resource).stream()
+                .filter(dependency -> dependency != null && dependency.getService() != null)
+                .map(dependency -> serviceKey(resource.getMetadata().getNamespace(), dependency.getService()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Checks the dependencies of a custom resource, in declaration order.
+     *
+     * @param resource The custom resource being reconciled.
+     * @param context The reconciliation context, whose EndpointSlice informer must carry the {@link #SERVICE_INDEX} index.
+     * @return A description of each dependency that is not ready, empty if all are.
+     */
+    public List<String> unreadyDependencies(PaymentHubDeployment resource, Context<PaymentHubDeployment> context) {
+        List<PaymentHubDeploymentSpec.Dependency> dependencies = dependencies(resource);
+        if (dependencies.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        String namespace = resource.getMetadata().getNamespace();
+        List<String> unready = new ArrayList<>();
+        for (PaymentHubDeploymentSpec.Dependency dependency : dependencies) {
+            if (dependency == null) {
+                continue;
+            }
+            if (dependency.getService() != null) {
+                if (!isServiceReady(context, namespace, dependency.getService())) {
+                    unready.add("service/" + dependency.getService());
+                }
+            } else if (dependency.getHost() == null || dependency.getPort() == null) {
+                unready.add("invalid dependency " + dependency + ": set either service or host and port");
+            } else {
+                String target = qualifyHost(dependency.getHost(), namespace) + ":" + dependency.getPort();
+                if (!isReachable(target)) {
+                    unready.add("tcp://" + target);
+                }
+            }
+        }
+        pruneProbes();
+        return unready;
+    }
+
+    /**
+     * Returns the dependencies of a custom resource: those in {@code spec.dependsOn}, or the database the init container
+     * used to wait for when only the deprecated {@code initContainerEnabled} is set.
+     *
+     * @param resource The custom resource.
+     * @return The dependencies to check, empty if there are none.
+     */
+    static List<PaymentHubDeploymentSpec.Dependency> dependencies(PaymentHubDeployment resource) {
+        PaymentHubDeploymentSpec spec = resource.getSpec();
+        if (spec == null) {
+            return Collections.emptyList();
+        }
+        if (spec.getDependsOn() != null) {
+            return spec.getDependsOn();
+        }
+        return Boolean.TRUE.equals(spec.getInitContainerEnabled())
+                ? Collections.singletonList(LEGACY_INIT_CONTAINER_DEPENDENCY)
+                : Collections.<PaymentHubDeploymentSpec.Dependency>emptyList();
+    }
+
+    /**
+     * Qualifies a host without a dot as a Service in the given namespace, e.g. {@code kafka} in namespace
+     * {@code paymenthub} becomes {@code kafka.paymenthub.svc}, since the operator does not run in the namespace of the
+     * custom resource and its resolver would otherwise search its own namespace. IPv6 literals are left as they are.
+     *
+     * @param host The host declared in {@code dependsOn}.
+     * @param namespace The namespace of the custom resource.
+     * @return The host to connect to.
+     */
+    static String qualifyHost(String host, String namespace) {
+        if (host.indexOf('.') >= 0 || host.indexOf(':') >= 0 || namespace == null) {
+            return host;
+        }
+        return host + "." + namespace + ".svc";
+    }
+
+    /**
+     * Checks whether any cached EndpointSlice of a Service has a ready endpoint. An endpoint without a ready condition
+     * counts as ready, as the EndpointSlice API specifies.
+     */
+    private static boolean isServiceReady(Context<PaymentHubDeployment> context, String namespace, String service) {
+        for (EndpointSlice endpointSlice : InformerCacheUtil.getCachedResourcesByIndex(context, EndpointSlice.class,
+                SERVICE_INDEX, serviceKey(namespace, service))) {
+            if (endpointSlice.getEndpoints() == null) {
+                continue;
+            }
+            for (Endpoint endpoint : endpointSlice.getEndpoints()) {
+                if (endpoint.getConditions() == null || !Boolean.FALSE.equals(endpoint.getConditions().getReady())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the last TCP check result of a {@code host:port} target, starting a new check in the background when
+     * there is none yet or it is older than the recheck interval.
+     */
+    private boolean isReachable(String target) {
+        long now = System.nanoTime();
+        Probe probe = probes.computeIfAbsent(target, t -> new Probe());
+        probe.requestedNanos = now;
+        if ((!probe.checked || now - probe.checkedNanos >= recheckInterval.toNanos())
+                && probe.inFlight.compareAndSet(false, true)) {
+            try {
+                probeExecutor.execute(() -> check(target, probe));
+            } catch (RejectedExecutionException e) {
+                probe.inFlight.set(false);
+            }
+        }
+        return probe.reachable;
+    }
+
+    /**
+     * Checks whether a TCP target accepts connections within the connect timeout and records the result.
+     */
+    private void check(String target, Probe probe) {
+        int separator = target.lastIndexOf(':');
+        String host = target.substring(0, separator);
+        int port = Integer.parseInt(target.substring(separator + 1));
+        boolean reachable;
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(host, port), connectTimeoutMillis);
+            reachable = true;
+        } catch (IOException | IllegalArgumentException e) {
+            log.debug("Dependency tcp://{} is not reachable: {}", target, e.getMessage());
+            reachable = false;
+        }
+        probe.reachable = reachable;
+        probe.checkedNanos = System.nanoTime();
+        probe.checked = true;
+        probe.inFlight.set(false);
+    }
+
+    /**
+     * Drops the check results of targets no custom resource has asked for in the last three recheck intervals.
+     */
+    private void pruneProbes() {
+        long now = System.nanoTime();
+        long idleNanos = 3 * recheckInterval.toNanos();
+        probes.values().removeIf(probe -> now - probe.requestedNanos > idleNanos && !probe.inFlight.get());
+    }
+
+    private static String serviceKey(String namespace, String service) {
+        return namespace + "/" + service;
+    }
+
+    /**
+     * The last TCP check of a target.
+     */
+    private static final class Probe {
+
+        private final AtomicBoolean inFlight = new AtomicBoolean();
+        private volatile boolean reachable;
+        private volatile boolean checked;
+        private volatile long checkedNanos;
+        private volatile long requestedNanos;
+    }
+}
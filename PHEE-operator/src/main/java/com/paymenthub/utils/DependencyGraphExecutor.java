@@ -0,0 +1,133 @@
+package com.paymenthub.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Small DAG executor used to reconcile the dependents of a single custom resource in parallel.
+ *
+ * Each step declares the steps it depends on and is started as soon as all of them have completed, so the wall-clock
+ * time of a reconciliation is bounded by the longest dependency chain instead of the sum of all API round trips.
+ */
+public class DependencyGraphExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(DependencyGraphExecutor.class);
+
+    /**
+     * Callback notified when a step has run, e.g. to record its duration.
+     */
+    public interface StepListener {
+        /**
+         * @param name The name of the step.
+         * @param durationNanos How long the step ran.
+         * @param failed Whether the step threw.
+         */
+        void onStepCompleted(String name, long durationNanos, boolean failed);
+    }
+
+    private final ExecutorService executorService;
+    private final StepListener stepListener;
+    private final Map<String, Step> steps = new LinkedHashMap<>();
+
+    /**
+     * @param executorService The executor the steps are run on.
+     */
+    public DependencyGraphExecutor(ExecutorService executorService) {
+        this(executorService, (name, durationNanos, failed) -> { });
+    }
+
+    /**
+     * @param executorService The executor the steps are run on.
+     * @param stepListener The callback notified after each step has run. Skipped steps are not reported.
+     */
+    public DependencyGraphExecutor(ExecutorService executorService, StepListener stepListener) {
+        this.executorService = executorService;
+        this.stepListener = stepListener;
+    }
+
+    /**
+     * Adds a step to the graph. Nothing runs until {@link #execute()} is called, so a graph that fails to build has
+     * not started any of its steps. Once executed, the step starts when every step it depends on has completed
+     * successfully, and is skipped if any of them failed.
+     *
+     * @param name The unique name of the step.
+     * @param task The work performed by the step.
+     * @param dependsOn The names of previously added steps that must complete first.
+     * @return This executor, for chaining.
+     */
+    public DependencyGraphExecutor addStep(String name, Runnable task, String... dependsOn) {
+        if (steps.containsKey(name)) {
+            throw new IllegalArgumentException("Step " + name + " is already defined.");
+        }
+        for (String dependency : dependsOn) {
+            if (!steps.containsKey(dependency)) {
+                throw new IllegalArgumentException("Step " + name + " depends on unknown step " + dependency + ".");
+            }
+        }
+        steps.put(name, new Step(task, dependsOn));
+        return this;
+    }
+
+    /**
+     * Returns the names of all steps added so far, in insertion order.
+     *
+     * @return The step names.
+     */
+    public String[] getStepNames() {
+        return steps.keySet().toArray(new String[0]);
+    }
+
+    /**
+     * Starts every step, waits for all of them to finish and rethrows the first failure, if any.
+     */
+    public void execute() {
+        // Dependencies are always added first, so insertion order is a valid start order
+        Map<String, CompletableFuture<Void>> futures = new LinkedHashMap<>();
+        for (Map.Entry<String, Step> entry : steps.entrySet()) {
+            String name = entry.getKey();
+            Step step = entry.getValue();
+            CompletableFuture<?>[] prerequisites = new CompletableFuture<?>[step.dependsOn.length];
+            for (int i = 0; i < prerequisites.length; i++) {
+                prerequisites[i] = futures.get(step.dependsOn[i]);
+            }
+            // Steps run on executor threads, so the API calls they make are attributed to the reconcile that added them
+            futures.put(name, CompletableFuture.allOf(prerequisites).thenRunAsync(ApiCallAccounting.propagate(() -> {
+                log.debug("Running reconcile step: {}", name);
+                long start = System.nanoTime();
+                boolean failed = true;
+                try {
+                    step.task.run();
+                    failed = false;
+                } finally {
+                    stepListener.onStepCompleted(name, System.nanoTime() - start, failed);
+                }
+            }), executorService));
+        }
+
+        try {
+            CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Reconcile step failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    private static final class Step {
+        private final Runnable task;
+        private final String[] dependsOn;
+
+        private Step(Runnable task, String[] dependsOn) {
+            this.task = task;
+            this.dependsOn = dependsOn;
+        }
+    }
+}
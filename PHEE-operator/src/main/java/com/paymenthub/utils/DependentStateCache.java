@@ -0,0 +1,89 @@
+package com.paymenthub.utils;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.javaoperatorsdk.operator.api.reconciler.Context;
+import io.javaoperatorsdk.operator.processing.event.ResourceID;
+
+import com.paymenthub.customresource.PaymentHubDeployment;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers, per custom resource, the generation and the resource versions of its dependents as seen in the informer
+ * caches after the last successful reconciliation.
+ *
+ * When neither the spec generation nor any dependent has changed since then, a reconciliation cannot produce any
+ * write, so the controller can skip rendering and comparing the dependents altogether.
+ */
+public class DependentStateCache {
+
+    private final List<Class<? extends HasMetadata>> dependentTypes;
+    private final Map<ResourceID, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * @param dependentTypes The secondary resource types that have an informer event source registered on the controller.
+     */
+    public DependentStateCache(List<Class<? extends HasMetadata>> dependentTypes) {
+        this.dependentTypes = dependentTypes;
+    }
+
+    /**
+     * Checks whether the custom resource and all of its cached dependents are unchanged since the last recorded
+     * successful reconciliation.
+     *
+     * @param resource The custom resource being reconciled.
+     * @param context The reconciliation context providing access to the informer caches.
+     * @return true if nothing has changed and the reconciliation can be skipped, false otherwise.
+     */
+    public boolean isUnchanged(PaymentHubDeployment resource, Context<PaymentHubDeployment> context) {
+        Snapshot snapshot = snapshots.get(ResourceID.fromResource(resource));
+        return snapshot != null
+                && Objects.equals(snapshot.generation, resource.getMetadata().getGeneration())
+                && snapshot.dependentVersions.equals(dependentVersions(context));
+    }
+
+    /**
+     * Records the current generation and dependent resource versions after a successful reconciliation.
+     *
+     * @param resource The custom resource that was reconciled.
+     * @param context The reconciliation context providing access to the informer caches.
+     */
+    public void record(PaymentHubDeployment resource, Context<PaymentHubDeployment> context) {
+        snapshots.put(ResourceID.fromResource(resource),
+                new Snapshot(resource.getMetadata().getGeneration(), dependentVersions(context)));
+    }
+
+    /**
+     * Drops the recorded state of a custom resource, forcing its next reconciliation to run in full.
+     *
+     * @param resourceID The custom resource to forget.
+     */
+    public void forget(ResourceID resourceID) {
+        snapshots.remove(resourceID);
+    }
+
+    private Map<String, String> dependentVersions(Context<PaymentHubDeployment> context) {
+        Map<String, String> versions = new HashMap<>();
+        for (Class<? extends HasMetadata> type : dependentTypes) {
+            for (HasMetadata dependent : context.getSecondaryResources(type)) {
+                versions.put(HasMetadata.getKind(type) + "/" + dependent.getMetadata().getNamespace() + "/"
+                        + dependent.getMetadata().getName(), dependent.getMetadata().getResourceVersion());
+            }
+        }
+        return versions;
+    }
+
+    private static final class Snapshot {
+        private final Long generation;
+        private final Map<String, String> dependentVersions;
+
+        private Snapshot(Long generation, Map<String, String> dependentVersions) {
+            this.generation = generation;
+            this.dependentVersions = dependentVersions;
+        }
+    }
+}
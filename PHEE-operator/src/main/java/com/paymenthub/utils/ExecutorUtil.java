@@ -0,0 +1,106 @@
+package com.paymenthub.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Utility class for creating the executors used by the operator to run reconciliations.
+ */
+public class ExecutorUtil {
+
+    private static final Logger log = LoggerFactory.getLogger(ExecutorUtil.class);
+
+    /**
+     * Creates an executor that starts a new virtual thread for each task. Reconciliations are dominated by blocking
+     * calls to the API server, so virtual threads let many of them run concurrently without sizing a platform-thread
+     * pool.
+     *
+     * The executor is looked up reflectively so the operator still builds and runs on JDKs older than 21.
+     *
+     * @return The virtual-thread executor, or empty if the running JVM does not support virtual threads.
+     */
+    public static Optional<ExecutorService> newVirtualThreadExecutor() {
+        try {
+            return Optional.of((ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null));
+        } catch (ReflectiveOperationException e) {
+            log.warn("Virtual threads are not supported by this JVM ({}), using the default thread pools.",
+                    System.getProperty("java.version"));
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Creates an executor that starts a new virtual thread for each task and lets at most {@code maxConcurrency} of
+     * them run at a time. Tasks beyond the limit are not queued in front of a pool: their virtual threads start right
+     * away and park on a semaphore until a running task finishes, so submitting never blocks the caller. A non-positive
+     * limit falls back to {@link #newVirtualThreadExecutor()}, which is unbounded.
+     *
+     * @param maxConcurrency The maximum number of tasks running concurrently.
+     * @return The bounded virtual-thread executor, or empty if the running JVM does not support virtual threads.
+     */
+    public static Optional<ExecutorService> newVirtualThreadExecutor(int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            return newVirtualThreadExecutor();
+        }
+        return newVirtualThreadExecutor().map(executor -> new BoundedExecutorService(executor, maxConcurrency));
+    }
+
+    /**
+     * Executor running each task on a delegate once it holds one of a fixed number of permits.
+     */
+    private static final class BoundedExecutorService extends AbstractExecutorService {
+
+        private final ExecutorService delegate;
+        private final Semaphore permits;
+
+        private BoundedExecutorService(ExecutorService delegate, int maxConcurrency) {
+            this.delegate = delegate;
+            this.permits = new Semaphore(maxConcurrency);
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            delegate.execute(() -> {
+                permits.acquireUninterruptibly();
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+    }
+}
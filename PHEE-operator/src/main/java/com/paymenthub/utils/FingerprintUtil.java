@@ -0,0 +1,96 @@
+package com.paymenthub.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.utils.Serialization;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Utility class for fingerprinting the desired state of secondary resources.
+ *
+ * Every rendered object is stamped with a stable hash of its content before it is written. When the live object in the
+ * informer cache already carries the same hash, the write is skipped, so a steady-state reconcile produces no API writes.
+ *
+ * Only the annotation is compared, not the live content. A manual edit to a dependent that leaves the annotation in
+ * place is therefore not reverted until the desired state itself changes; removing the annotation, or deleting the
+ * object, makes the next reconcile write it again.
+ */
+public class FingerprintUtil {
+
+    /**
+     * Annotation holding the hash of the desired state last written by the operator.
+     */
+    public static final String FINGERPRINT_ANNOTATION = "gazelle.mifos.io/desired-state-hash";
+
+    // Sort map entries so that labels, annotations and data hash identically regardless of insertion order
+    private static final ObjectMapper MAPPER = Serialization.jsonMapper().copy()
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    /**
+     * Computes the hash of the desired resource and stores it as the fingerprint annotation.
+     *
+     * @param desired The rendered desired state of the resource.
+     * @return The same resource, annotated with its fingerprint, or null if the resource is null.
+     */
+    public static <R extends HasMetadata> R addFingerprint(R desired) {
+        if (desired == null) {
+            return null;
+        }
+        Map<String, String> annotations = desired.getMetadata().getAnnotations() == null
+                ? new LinkedHashMap<>()
+                : new LinkedHashMap<>(desired.getMetadata().getAnnotations());
+        annotations.put(FINGERPRINT_ANNOTATION, computeHash(desired));
+        desired.getMetadata().setAnnotations(annotations);
+        return desired;
+    }
+
+    /**
+     * Checks whether the live resource was last written from the same desired state.
+     *
+     * @param live The live resource from the informer cache, or null if it does not exist.
+     * @param desired The fingerprinted desired state of the resource.
+     * @return true if both carry the same fingerprint and no write is needed, false otherwise.
+     */
+    public static boolean matches(HasMetadata live, HasMetadata desired) {
+        if (live == null || desired == null || live.getMetadata().getAnnotations() == null
+                || desired.getMetadata().getAnnotations() == null) {
+            return false;
+        }
+        String desiredHash = desired.getMetadata().getAnnotations().get(FINGERPRINT_ANNOTATION);
+        return desiredHash != null && desiredHash.equals(live.getMetadata().getAnnotations().get(FINGERPRINT_ANNOTATION));
+    }
+
+    /**
+     * Computes a stable SHA-256 hash of the resource's serialized content, ignoring any fingerprint it already carries.
+     *
+     * @param desired The rendered desired state of the resource.
+     * @return The hex-encoded hash.
+     */
+    public static String computeHash(HasMetadata desired) {
+        try {
+            JsonNode tree = MAPPER.valueToTree(desired);
+            JsonNode annotations = tree.path("metadata").path("annotations");
+            if (annotations instanceof ObjectNode) {
+                ((ObjectNode) annotations).remove(FINGERPRINT_ANNOTATION);
+            }
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(MAPPER.writeValueAsString(tree).getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to compute fingerprint for " + desired.getMetadata().getName(), e);
+        }
+    }
+}
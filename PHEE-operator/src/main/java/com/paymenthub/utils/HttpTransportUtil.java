@@ -0,0 +1,160 @@
+package com.paymenthub.utils;
+
+import io.fabric8.kubernetes.client.http.HttpClient;
+import io.fabric8.kubernetes.client.okhttp.OkHttpClientFactory;
+
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Utility class for creating the HTTP client factory the Kubernetes client talks to the API server with.
+ *
+ * Three transports are available: OkHttp, the fabric8 default, the JDK {@code java.net.http} client and Vert.x. OkHttp
+ * and the JDK client negotiate HTTP/2 over TLS unless it is disabled in the client configuration, so concurrent
+ * requests and watches are multiplexed over a few connections instead of holding one connection each. Their idle
+ * connection pool and keep-alive can be tuned; the fabric8 Vert.x client in this version ignores both, always speaks
+ * HTTP/1.1, and allows up to 8192 pooled connections.
+ *
+ * Only OkHttp is bundled by default. The JDK and Vert.x transports are added to the build with the {@code http-jdk}
+ * and {@code http-vertx} Maven profiles, and their factories are loaded by name so the operator runs without them.
+ */
+public class HttpTransportUtil {
+
+    private static final Logger log = LoggerFactory.getLogger(HttpTransportUtil.class);
+
+    public static final String OKHTTP = "okhttp";
+    public static final String JDK = "jdk";
+    public static final String VERTX = "vertx";
+
+    /** Factory of the JDK transport, only on the classpath when built with the {@code http-jdk} profile. */
+    public static final String JDK_FACTORY = "io.fabric8.kubernetes.client.jdkhttp.JdkHttpClientFactory";
+    /** Factory of the Vert.x transport, only on the classpath when built with the {@code http-vertx} profile. */
+    public static final String VERTX_FACTORY = "io.fabric8.kubernetes.client.vertx.VertxHttpClientFactory";
+
+    // OkHttp connection pool defaults, used for whichever of the two settings is not configured
+    private static final int OKHTTP_DEFAULT_POOL_SIZE = 5;
+    private static final int OKHTTP_DEFAULT_KEEP_ALIVE_SECONDS = 300;
+
+    /**
+     * Reads the transport from the KUBERNETES_HTTP_TRANSPORT environment variable.
+     *
+     * @return One of {@link #OKHTTP}, {@link #JDK} or {@link #VERTX}; OkHttp if unset, unknown or not bundled.
+     */
+    public static String getTransport() {
+        String transport = ConfigUtil.getString("KUBERNETES_HTTP_TRANSPORT", OKHTTP).toLowerCase();
+        if (!OKHTTP.equals(transport) && !JDK.equals(transport) && !VERTX.equals(transport)) {
+            log.warn("Unknown KUBERNETES_HTTP_TRANSPORT '{}', using {}.", transport, OKHTTP);
+            return OKHTTP;
+        }
+        if (!isAvailable(transport)) {
+            log.warn("The {} transport is not bundled in this build, using {}. Build with -Phttp-{} to include it.",
+                    transport, OKHTTP, transport);
+            return OKHTTP;
+        }
+        return transport;
+    }
+
+    /**
+     * Checks whether the given transport is on the classpath.
+     *
+     * @param transport One of {@link #OKHTTP}, {@link #JDK} or {@link #VERTX}.
+     * @return true if its HTTP client factory can be loaded, false otherwise.
+     */
+    public static boolean isAvailable(String transport) {
+        if (!JDK.equals(transport) && !VERTX.equals(transport)) {
+            return true;
+        }
+        try {
+            Class.forName(JDK.equals(transport) ? JDK_FACTORY : VERTX_FACTORY, false, HttpTransportUtil.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Creates the HTTP client factory for the given transport, with the connection pool settings read from the
+     * KUBERNETES_HTTP_CONNECTION_POOL_SIZE and KUBERNETES_HTTP_KEEP_ALIVE_SECONDS environment variables.
+     *
+     * @param transport One of {@link #OKHTTP}, {@link #JDK} or {@link #VERTX}.
+     * @return The factory to build the Kubernetes client with.
+     */
+    public static HttpClient.Factory newHttpClientFactory(String transport) {
+        return newHttpClientFactory(transport,
+                ConfigUtil.getInt("KUBERNETES_HTTP_CONNECTION_POOL_SIZE", 0),
+                ConfigUtil.getInt("KUBERNETES_HTTP_KEEP_ALIVE_SECONDS", 0));
+    }
+
+    /**
+     * Creates the HTTP client factory for the given transport.
+     *
+     * @param transport One of {@link #OKHTTP}, {@link #JDK} or {@link #VERTX}.
+     * @param poolSize Idle connections kept open for reuse, or 0 for the transport default.
+     * @param keepAliveSeconds How long an idle connection is kept open, or 0 for the transport default.
+     * @return The factory to build the Kubernetes client with.
+     */
+    public static HttpClient.Factory newHttpClientFactory(String transport, int poolSize, int keepAliveSeconds) {
+        log.info("Using the {} HTTP transport for the Kubernetes client.", transport);
+        switch (transport) {
+            case JDK:
+                return newJdkHttpClientFactory(poolSize, keepAliveSeconds);
+            case VERTX:
+                if (poolSize > 0 || keepAliveSeconds > 0) {
+                    log.warn("The Vert.x transport does not support connection pool settings, ignoring them.");
+                }
+                return newFactory(VERTX_FACTORY, transport);
+            default:
+                return newOkHttpClientFactory(poolSize, keepAliveSeconds);
+        }
+    }
+
+    private static HttpClient.Factory newOkHttpClientFactory(int poolSize, int keepAliveSeconds) {
+        if (poolSize <= 0 && keepAliveSeconds <= 0) {
+            return new OkHttpClientFactory();
+        }
+        return new OkHttpClientFactory() {
+            @Override
+            protected void additionalConfig(OkHttpClient.Builder builder) {
+                builder.connectionPool(new ConnectionPool(
+                        poolSize > 0 ? poolSize : OKHTTP_DEFAULT_POOL_SIZE,
+                        keepAliveSeconds > 0 ? keepAliveSeconds : OKHTTP_DEFAULT_KEEP_ALIVE_SECONDS,
+                        TimeUnit.SECONDS));
+            }
+        };
+    }
+
+    /**
+     * The JDK client only reads its pool settings from system properties, once, when its connection pool class is
+     * initialised, so they are set here before the first client is built. Values passed with -D take precedence.
+     */
+    private static HttpClient.Factory newJdkHttpClientFactory(int poolSize, int keepAliveSeconds) {
+        if (poolSize > 0) {
+            setPropertyIfAbsent("jdk.httpclient.connectionPoolSize", Integer.toString(poolSize));
+        }
+        if (keepAliveSeconds > 0) {
+            setPropertyIfAbsent("jdk.httpclient.keepalive.timeout", Integer.toString(keepAliveSeconds));
+            setPropertyIfAbsent("jdk.httpclient.keepalive.timeout.h2", Integer.toString(keepAliveSeconds));
+        }
+        return newFactory(JDK_FACTORY, JDK);
+    }
+
+    private static HttpClient.Factory newFactory(String factoryClass, String transport) {
+        try {
+            return (HttpClient.Factory) Class.forName(factoryClass).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            throw new IllegalStateException("The " + transport + " HTTP transport is not bundled in this build, rebuild with -Phttp-"
+                    + transport + ".", e);
+        }
+    }
+
+    private static void setPropertyIfAbsent(String name, String value) {
+        if (System.getProperty(name) == null) {
+            System.setProperty(name, value);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.paymenthub.utils;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.javaoperatorsdk.operator.api.reconciler.Context;
+import io.javaoperatorsdk.operator.processing.event.ResourceID;
+import io.javaoperatorsdk.operator.processing.event.source.informer.InformerEventSource;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Utility class for reading secondary resources from the informer caches registered on the controller,
+ * so existence checks and comparisons are served from memory instead of the Kubernetes API server.
+ */
+public class InformerCacheUtil {
+
+    /**
+     * Label selector applied to every secondary resource informer. Only objects created by this operator are cached.
+     */
+    public static final String MANAGED_BY_SELECTOR = "app.kubernetes.io/managed-by=ph-ee-operator";
+
+    /**
+     * Name of the informer index that maps the UID of an owner to the cached resources referencing it.
+     */
+    public static final String OWNER_UID_INDEX = "ownerUid";
+
+    /**
+     * Index function for {@link #OWNER_UID_INDEX}, returning the UIDs of all owners of a resource.
+     *
+     * @param resource The cached resource to index.
+     * @return The UIDs of the resource's owner references.
+     */
+    public static List<String> ownerUids(HasMetadata resource) {
+        return resource.getMetadata().getOwnerReferences().stream()
+                .map(ownerReference -> ownerReference.getUid())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Looks up a secondary resource by name in the informer cache registered for its type.
+     *
+     * @param context The reconciliation context of the custom resource being reconciled.
+     * @param resourceType The class of the secondary resource.
+     * @param name The name of the secondary resource.
+     * @param namespace The namespace of the secondary resource, or null for cluster-scoped resources.
+     * @return The cached resource, or null if it is not present in the cache.
+     */
+    public static <R extends HasMetadata> R getCachedResource(Context<?> context, Class<R> resourceType,
+                                                               String name, String namespace) {
+        return eventSourceFor(context, resourceType).get(new ResourceID(name, namespace)).orElse(null);
+    }
+
+    /**
+     * Looks up the cached secondary resources owned by the given custom resource through the {@link #OWNER_UID_INDEX}
+     * index, keyed by name. The event source for the type must have been registered with that index.
+     *
+     * @param context The reconciliation context of the custom resource being reconciled.
+     * @param resourceType The class of the secondary resource.
+     * @param owner The custom resource owning the secondary resources.
+     * @return The cached resources owned by the custom resource, keyed by name.
+     */
+    public static <R extends HasMetadata> Map<String, R> getCachedResourcesByOwner(Context<?> context,
+                                                                                  Class<R> resourceType, HasMetadata owner) {
+        Map<String, R> resources = new HashMap<>();
+        for (R resource : eventSourceFor(context, resourceType).byIndex(OWNER_UID_INDEX, owner.getMetadata().getUid())) {
+            resources.put(resource.getMetadata().getName(), resource);
+        }
+        return resources;
+    }
+
+    /**
+     * Looks up cached secondary resources through a custom index of the informer registered for their type.
+     *
+     * @param context The reconciliation context of the custom resource being reconciled.
+     * @param resourceType The class of the secondary resource.
+     * @param indexName The name of the index the event source was registered with.
+     * @param key The index key to look up.
+     * @return The cached resources indexed under the key.
+     */
+    public static <R extends HasMetadata> List<R> getCachedResourcesByIndex(Context<?> context, Class<R> resourceType,
+                                                                           String indexName, String key) {
+        return eventSourceFor(context, resourceType).byIndex(indexName, key);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R extends HasMetadata> InformerEventSource<R, ?> eventSourceFor(Context<?> context, Class<R> resourceType) {
+        return (InformerEventSource<R, ?>) context.eventSourceRetriever().getResourceEventSourceFor(resourceType);
+    }
+}
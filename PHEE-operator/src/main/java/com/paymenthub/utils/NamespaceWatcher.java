@@ -0,0 +1,121 @@
+package com.paymenthub.utils;
+
+import io.fabric8.kubernetes.api.model.Namespace;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.javaoperatorsdk.operator.api.config.NamespaceChangeable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the set of namespaces watched by the controller in sync with the namespaces matching a label selector.
+ *
+ * Namespaces that start or stop matching the selector, or are created or deleted, are added to or removed from the
+ * controller and its informers at runtime, without restarting the operator.
+ */
+public class NamespaceWatcher implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(NamespaceWatcher.class);
+
+    private final KubernetesClient kubernetesClient;
+    private final String labelSelector;
+    private final Set<String> namespaces = new TreeSet<>();
+    private List<NamespaceChangeable> targets;
+    private SharedIndexInformer<Namespace> informer;
+
+    /**
+     * @param kubernetesClient The Kubernetes client used to watch namespaces.
+     * @param labelSelector The label selector the watched namespaces must match.
+     */
+    public NamespaceWatcher(KubernetesClient kubernetesClient, String labelSelector) {
+        this.kubernetesClient = kubernetesClient;
+        this.labelSelector = labelSelector;
+    }
+
+    /**
+     * Parses a comma-separated namespace list, as used in {@code WATCH_NAMESPACE}.
+     *
+     * @param value The comma-separated namespaces, or null.
+     * @return The namespaces, or an empty set meaning all namespaces.
+     */
+    public static Set<String> parseNamespaces(String value) {
+        if (value == null) {
+            return Collections.emptySet();
+        }
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(namespace -> !namespace.isEmpty())
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    /**
+     * Lists the namespaces currently matching the label selector.
+     *
+     * @return The matching namespace names.
+     */
+    public synchronized Set<String> listNamespaces() {
+        namespaces.clear();
+        kubernetesClient.namespaces().withLabelSelector(labelSelector).list().getItems()
+                .forEach(namespace -> namespaces.add(namespace.getMetadata().getName()));
+        return new TreeSet<>(namespaces);
+    }
+
+    /**
+     * Starts watching namespaces and applies every change of the matching set to the given targets.
+     *
+     * @param targets The registered controllers whose watched namespaces follow the selector.
+     */
+    public synchronized void start(NamespaceChangeable... targets) {
+        this.targets = Arrays.asList(targets);
+        informer = kubernetesClient.namespaces().withLabelSelector(labelSelector).inform(new ResourceEventHandler<Namespace>() {
+            @Override
+            public void onAdd(Namespace namespace) {
+                update(namespace.getMetadata().getName(), true);
+            }
+
+            @Override
+            public void onUpdate(Namespace oldNamespace, Namespace newNamespace) {
+                // A namespace being deleted stays in the selector until it is gone, which is reported by onDelete
+            }
+
+            @Override
+            public void onDelete(Namespace namespace, boolean deletedFinalStateUnknown) {
+                update(namespace.getMetadata().getName(), false);
+            }
+        });
+        log.info("Watching namespaces matching {}.", labelSelector);
+    }
+
+    private synchronized void update(String namespace, boolean matches) {
+        boolean changed = matches ? namespaces.add(namespace) : namespaces.remove(namespace);
+        if (!changed || targets == null) {
+            return;
+        }
+        if (namespaces.isEmpty()) {
+            // An empty set would make the controller watch every namespace, so keep watching the last one instead
+            log.warn("No namespace matches {} anymore, keeping the last watched namespace {}.", labelSelector, namespace);
+            namespaces.add(namespace);
+            return;
+        }
+        log.info("Namespaces matching {} changed, now watching {}.", labelSelector, namespaces);
+        targets.forEach(target -> target.changeNamespaces(new HashSet<>(namespaces)));
+    }
+
+    @Override
+    public synchronized void close() {
+        if (informer != null) {
+            informer.close();
+            informer = null;
+        }
+    }
+}
@@ -4,7 +4,8 @@ import io.fabric8.kubernetes.api.model.*;
 import io.fabric8.kubernetes.api.model.networking.v1.*;
 
 import io.fabric8.kubernetes.client.KubernetesClient;
-import io.fabric8.kubernetes.client.dsl.Resource;
+import io.fabric8.kubernetes.client.dsl.NonDeletingOperation;
+import io.javaoperatorsdk.operator.api.reconciler.Context;
 
 import com.paymenthub.customresource.PaymentHubDeployment;
 import com.paymenthub.customresource.PaymentHubDeploymentSpec;
@@ -19,77 +20,53 @@ import java.util.stream.Collectors;
 public class NetworkingUtils {
 
     private final KubernetesClient kubernetesClient;
+    private final boolean serverSideApply;
     private static final Logger log = LoggerFactory.getLogger(NetworkingUtils.class);
 
-    public NetworkingUtils(KubernetesClient kubernetesClient) {
+    public NetworkingUtils(KubernetesClient kubernetesClient, boolean serverSideApply) {
         this.kubernetesClient = kubernetesClient;
+        this.serverSideApply = serverSideApply;
     }
 
     /**
      * Reconciles the Services for the given custom resource.
-     * This includes creating, updating, or deleting services as necessary.
+     * This includes creating, updating, or deleting services as necessary. Existing services are looked up through the
+     * owner UID index of the Service informer, and owned services no longer listed in the spec are deleted.
      * 
      * @param resource The custom resource specifying the service configuration.
+     * @param context The reconciliation context providing access to the informer caches.
      */
-    public void reconcileServices(PaymentHubDeployment resource) {
+    public void reconcileServices(PaymentHubDeployment resource, Context<PaymentHubDeployment> context) {
         log.info("Reconciling Services for resource: {}", resource.getMetadata().getName());
 
-        List<Service> desiredServices = createServices(resource);
+        List<Service> desiredServices = createServices(resource).stream()
+                .map(FingerprintUtil::addFingerprint)
+                .collect(Collectors.toList());
         log.debug("Desired Service specs: {}", desiredServices.stream().map(Service::toString).collect(Collectors.joining(", ")));
 
-        // Get the list of existing services in the namespace
-        List<Service> existingServices = kubernetesClient.services()
-                .inNamespace(resource.getMetadata().getNamespace())
-                .list()
-                .getItems()
-                .stream()
-                .filter(service -> desiredServices.stream().anyMatch(desiredService -> desiredService.getMetadata().getName().equals(service.getMetadata().getName())))
-                .collect(Collectors.toList());
+        // Get the services owned by this resource from the informer index, keyed by name
+        Map<String, Service> existingServices = InformerCacheUtil.getCachedResourcesByOwner(context, Service.class, resource);
 
         for (Service desiredService : desiredServices) {
-            Optional<Service> existingServiceOpt = existingServices.stream()
-                    .filter(existingService -> existingService.getMetadata().getName().equals(desiredService.getMetadata().getName()))
-                    .findFirst();
-
-            if (existingServiceOpt.isPresent()) {
-                Service existingService = existingServiceOpt.get();
-
-                // Compare the specs and only update if necessary
-                if (!areServicesEqual(existingService, desiredService)) {
-                    kubernetesClient.services()
-                            .inNamespace(resource.getMetadata().getNamespace())
-                            .withName(existingService.getMetadata().getName())
-                            .patch(desiredService); // Apply a patch instead of replacing the service
-                    log.info("Updated existing Service: {}", desiredService.getMetadata().getName());
-                } else {
-                    log.info("Service is up-to-date: {}", desiredService.getMetadata().getName());
-                }
-            } else {
-                // Create the service if it doesn't exist
-                kubernetesClient.services()
-                        .inNamespace(resource.getMetadata().getNamespace())
-                        .create(desiredService);
-                log.info("Created new Service: {}", desiredService.getMetadata().getName());
-            }
+            Service existingService = existingServices.remove(desiredService.getMetadata().getName());
+            ApplyUtil.applyIfChanged(kubernetesClient, serverSideApply, desiredService, existingService,
+                    NonDeletingOperation::patch);
         }
-    }
 
-    // Helper method to compare services based on significant fields
-    private boolean areServicesEqual(Service existingService, Service desiredService) {
-        // Compare important fields such as spec, ports, selectors, etc.
-        return Objects.equals(existingService.getSpec().getPorts(), desiredService.getSpec().getPorts())
-                && Objects.equals(existingService.getSpec().getSelector(), desiredService.getSpec().getSelector())
-                && Objects.equals(existingService.getSpec().getType(), desiredService.getSpec().getType());
+        // Whatever is left in the index is owned by this resource but no longer in spec.services
+        for (Service staleService : existingServices.values()) {
+            kubernetesClient.resource(staleService).withPropagationPolicy(DeletionPropagation.BACKGROUND).delete();
+            log.info("Deleted Service no longer in spec: {}", staleService.getMetadata().getName());
+        }
     }
 
-
     /**
      * Creates a list of Kubernetes Service objects based on the custom resource specifications.
      * 
      * @param resource The custom resource specifying the service configuration.
      * @return A list of created Service objects.
      */
-    private List<Service> createServices(PaymentHubDeployment resource) {
+    List<Service> createServices(PaymentHubDeployment resource) {
         log.info("Creating Services spec for resource: {}", resource.getMetadata().getName());
 
         PaymentHubDeploymentSpec spec = resource.getSpec();
@@ -119,6 +96,7 @@ public class NetworkingUtils {
                                 .withName(serviceSpec.getName())
                                 .withNamespace(resource.getMetadata().getNamespace())
                                 .withLabels(labels)
+                                .addToLabels(OwnerReferenceUtils.createOwnerLabels(resource))
                                 .withAnnotations(serviceSpec.getAnnotations())
                                 .withOwnerReferences(OwnerReferenceUtils.createOwnerReferences(resource)) 
                             .endMetadata()
@@ -139,25 +117,17 @@ public class NetworkingUtils {
      * This includes creating or updating the Ingress as necessary.
      * 
      * @param resource The custom resource specifying the Ingress configuration.
+     * @param context The reconciliation context providing access to the informer caches.
      */
-    public void reconcileIngress(PaymentHubDeployment resource) {
+    public void reconcileIngress(PaymentHubDeployment resource, Context<PaymentHubDeployment> context) {
         String ingressName = resource.getMetadata().getName() + "-ingress";
         log.info("Reconciling Ingress for resource: {}", resource.getMetadata().getName());
 
-        Ingress ingress = createIngress(resource, ingressName);
+        Ingress ingress = FingerprintUtil.addFingerprint(createIngress(resource, ingressName));
         log.debug("Created Ingress spec: {}", ingress);
 
-        Resource<Ingress> ingressResource = kubernetesClient.network().v1().ingresses()
-                .inNamespace(resource.getMetadata().getNamespace())
-                .withName(ingressName);
-
-        if (ingressResource.get() == null) {
-            ingressResource.create(ingress);
-            log.info("Created new Ingress: {}", ingressName);
-        } else {
-            ingressResource.patch(ingress);
-            log.info("Updated existing Ingress: {}", ingressName);
-        }
+        Ingress existingIngress = InformerCacheUtil.getCachedResource(context, Ingress.class, ingressName, resource.getMetadata().getNamespace());
+        ApplyUtil.applyIfChanged(kubernetesClient, serverSideApply, ingress, existingIngress, NonDeletingOperation::patch);
     }
 
     /**
@@ -167,7 +137,7 @@ public class NetworkingUtils {
      * @param ingressName The name of the Ingress to be created or updated.
      * @return The created Ingress object.
      */
-    private Ingress createIngress(PaymentHubDeployment resource, String ingressName) {
+    Ingress createIngress(PaymentHubDeployment resource, String ingressName) {
         log.info("Creating Ingress spec for resource: {}", resource.getMetadata().getName());
 
         List<IngressTLS> ingressTlsList = resource.getSpec().getIngress().getTls().stream()
@@ -210,6 +180,7 @@ public class NetworkingUtils {
                     .withName(ingressName)
                     .withNamespace(resource.getMetadata().getNamespace())
                     .withLabels(labels)
+                    .addToLabels(OwnerReferenceUtils.createOwnerLabels(resource))
                     .withAnnotations(resource.getSpec().getIngress().getAnnotations())
                     .withOwnerReferences(OwnerReferenceUtils.createOwnerReferences(resource)) 
                 .endMetadata()
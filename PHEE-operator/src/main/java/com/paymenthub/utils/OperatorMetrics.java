@@ -0,0 +1,323 @@
+package com.paymenthub.utils;
+
+import com.paymenthub.customresource.PaymentHubDeployment;
+import com.sun.net.httpserver.HttpServer;
+
+import io.javaoperatorsdk.operator.api.monitoring.Metrics;
+import io.javaoperatorsdk.operator.monitoring.micrometer.MicrometerMetrics;
+import io.javaoperatorsdk.operator.processing.event.ResourceID;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Collects the operator's Prometheus metrics and serves them on an embedded HTTP {@code /metrics} endpoint.
+ *
+ * Four groups of meters share one registry: the JOSDK controller metrics (reconciliations started, failed and
+ * finished, event counts and execution times), a latency histogram per reconcile phase labelled with the custom
+ * resource, counters and latencies of Kubernetes API requests per verb and resource kind fed by
+ * {@link ApiCallMetricsInterceptor}, and the API requests, bytes and API time of each reconcile of a custom resource
+ * taken from its {@link ApiCallAccounting}.
+ */
+public class OperatorMetrics implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(OperatorMetrics.class);
+
+    /**
+     * Reconcile phases reported by {@link #recordPhase}.
+     */
+    public static final String PHASE_RBAC = "rbac";
+    public static final String PHASE_SECRET = "secret";
+    public static final String PHASE_CONFIGMAP = "configmap";
+    public static final String PHASE_SERVICES = "services";
+    public static final String PHASE_INGRESS = "ingress";
+    public static final String PHASE_DEPLOYMENT = "deployment";
+    public static final String PHASE_AUTOSCALING = "autoscaling";
+    public static final String PHASE_STATUS = "status";
+
+    // Dependency graph step names, as used by the controller, mapped to the phase they belong to
+    private static final Map<String, String> STEP_PHASES = new HashMap<>();
+
+    static {
+        STEP_PHASES.put("serviceAccount", PHASE_RBAC);
+        STEP_PHASES.put("role", PHASE_RBAC);
+        STEP_PHASES.put("roleBinding", PHASE_RBAC);
+        STEP_PHASES.put("clusterRole", PHASE_RBAC);
+        STEP_PHASES.put("clusterRoleBinding", PHASE_RBAC);
+        STEP_PHASES.put("clusterRbac", PHASE_RBAC);
+        STEP_PHASES.put("rbac", PHASE_RBAC);
+        STEP_PHASES.put("secret", PHASE_SECRET);
+        STEP_PHASES.put("configMap", PHASE_CONFIGMAP);
+        STEP_PHASES.put("services", PHASE_SERVICES);
+        STEP_PHASES.put("ingress", PHASE_INGRESS);
+        STEP_PHASES.put("deployment", PHASE_DEPLOYMENT);
+        STEP_PHASES.put("autoscaling", PHASE_AUTOSCALING);
+    }
+
+    // Bucket bounds of the per-resource phase histogram; a handful of fixed buckets per custom resource instead of the
+    // ~70 of a percentile histogram keeps the number of time series proportional to the number of custom resources
+    private static final Duration[] PHASE_SLOS = {
+            Duration.ofMillis(10), Duration.ofMillis(50), Duration.ofMillis(250), Duration.ofSeconds(1), Duration.ofSeconds(5)
+    };
+
+    // Meters labelled with the name and namespace of a custom resource
+    private static final List<String> RESOURCE_METERS = Arrays.asList("phee.operator.reconcile.phase",
+            "phee.operator.reconcile.api.requests", "phee.operator.reconcile.api.bytes", "phee.operator.reconcile.api.duration");
+
+    private final MeterRegistry registry;
+    private final PrometheusMeterRegistry prometheusRegistry;
+    private HttpServer server;
+
+    private OperatorMetrics(MeterRegistry registry, PrometheusMeterRegistry prometheusRegistry) {
+        this.registry = registry;
+        this.prometheusRegistry = prometheusRegistry;
+    }
+
+    /**
+     * Creates metrics backed by a Prometheus registry. The endpoint is served once {@link #start(int)} is called.
+     *
+     * @return Metrics that can be scraped by Prometheus.
+     */
+    public static OperatorMetrics prometheus() {
+        PrometheusMeterRegistry prometheusRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        return new OperatorMetrics(prometheusRegistry, prometheusRegistry);
+    }
+
+    /**
+     * Creates metrics that record nothing, for an operator started with metrics disabled.
+     *
+     * @return Metrics discarding every measurement.
+     */
+    public static OperatorMetrics disabled() {
+        // A composite registry without children is a no-op registry
+        return new OperatorMetrics(new CompositeMeterRegistry(), null);
+    }
+
+    /**
+     * Returns the registry the meters are registered in, e.g. to add gauges.
+     *
+     * @return The meter registry.
+     */
+    public MeterRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Creates the JOSDK metrics implementation recording into the same registry. Per-resource controller meters are
+     * removed a minute after their custom resource is deleted, so deleted resources do not accumulate time series.
+     *
+     * @return The metrics to configure on the operator.
+     */
+    public Metrics controllerMetrics() {
+        return MicrometerMetrics.newPerResourceCollectingMicrometerMetricsBuilder(registry)
+                .withCleanUpDelayInSeconds(60)
+                .build();
+    }
+
+    /**
+     * Starts serving the Prometheus text format on {@code /metrics}. Does nothing for disabled metrics.
+     *
+     * @param port The port to listen on.
+     * @throws IOException If the port cannot be bound.
+     */
+    public synchronized void start(int port) throws IOException {
+        if (prometheusRegistry == null || server != null) {
+            return;
+        }
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/metrics", exchange -> {
+            byte[] body = prometheusRegistry.scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        log.info("Serving metrics on port {} at /metrics.", port);
+    }
+
+    /**
+     * Records the duration of a dependency graph step under the reconcile phase it belongs to.
+     *
+     * @param step The dependency graph step name.
+     * @param resource The custom resource being reconciled.
+     * @param durationNanos How long the step took.
+     * @param failed Whether the step threw.
+     */
+    public void recordStep(String step, PaymentHubDeployment resource, long durationNanos, boolean failed) {
+        recordPhase(STEP_PHASES.getOrDefault(step, step), resource, durationNanos, failed);
+    }
+
+    /**
+     * Records the duration of a reconcile phase of a custom resource.
+     *
+     * @param phase The reconcile phase, one of the {@code PHASE_*} constants.
+     * @param resource The custom resource being reconciled.
+     * @param durationNanos How long the phase took.
+     * @param failed Whether the phase threw.
+     */
+    public void recordPhase(String phase, PaymentHubDeployment resource, long durationNanos, boolean failed) {
+        Timer.builder("phee.operator.reconcile.phase")
+                .description("Duration of a reconcile phase of a PaymentHubDeployment")
+                .tag("phase", phase)
+                .tag("name", resource.getMetadata().getName())
+                .tag("namespace", String.valueOf(resource.getMetadata().getNamespace()))
+                .tag("outcome", failed ? "failure" : "success")
+                .serviceLevelObjectives(PHASE_SLOS)
+                .register(registry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Removes the meters labelled with a custom resource, once it is deleted or has moved to another shard, so the
+     * operator stops exporting time series for custom resources it no longer reconciles.
+     *
+     * @param resourceID The custom resource whose meters are removed.
+     */
+    public void removeResourceMeters(ResourceID resourceID) {
+        String namespace = String.valueOf(resourceID.getNamespace().orElse(null));
+        for (String meterName : RESOURCE_METERS) {
+            registry.find(meterName)
+                    .tag("name", resourceID.getName())
+                    .tag("namespace", namespace)
+                    .meters()
+                    .forEach(registry::remove);
+        }
+    }
+
+    /**
+     * Runs a reconcile phase and records its duration.
+     *
+     * @param phase The reconcile phase, one of the {@code PHASE_*} constants.
+     * @param resource The custom resource being reconciled.
+     * @param task The work of the phase.
+     * @return The result of the task.
+     */
+    public <T> T timePhase(String phase, PaymentHubDeployment resource, Supplier<T> task) {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = task.get();
+            failed = false;
+            return result;
+        } finally {
+            recordPhase(phase, resource, System.nanoTime() - start, failed);
+        }
+    }
+
+    /**
+     * Counts one request sent to the Kubernetes API server and records its latency.
+     *
+     * @param verb The Kubernetes API verb, e.g. get, list, watch, create, patch or delete.
+     * @param resource The resource kind in its plural URL form, e.g. deployments.
+     * @param code The HTTP status code of the response.
+     * @param transport The HTTP transport the request was sent with, e.g. okhttp, jdk or vertx.
+     * @param latencyNanos The time from sending the request to receiving the response headers.
+     */
+    public void recordApiCall(String verb, String resource, int code, String transport, long latencyNanos) {
+        Counter.builder("phee.operator.api.requests")
+                .description("Requests sent to the Kubernetes API server")
+                .tag("verb", verb)
+                .tag("resource", resource)
+                .tag("code", Integer.toString(code))
+                .register(registry)
+                .increment();
+        Timer.builder("phee.operator.api.request.duration")
+                .description("Latency of requests sent to the Kubernetes API server")
+                .tag("verb", verb)
+                .tag("resource", resource)
+                .tag("transport", transport)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(latencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Counts bytes of request or response bodies exchanged with the Kubernetes API server.
+     *
+     * @param direction Either sent or received.
+     * @param resource The resource kind in its plural URL form, e.g. deployments.
+     * @param bytes The number of bytes.
+     */
+    public void recordApiBytes(String direction, String resource, long bytes) {
+        Counter.builder("phee.operator.api.bytes")
+                .description("Body bytes exchanged with the Kubernetes API server")
+                .baseUnit("bytes")
+                .tag("direction", direction)
+                .tag("resource", resource)
+                .register(registry)
+                .increment(bytes);
+    }
+
+    /**
+     * Records the API traffic of one reconcile of a custom resource.
+     *
+     * @param resource The custom resource that was reconciled.
+     * @param accounting The API calls made during the reconcile.
+     */
+    public void recordReconcileApiCalls(PaymentHubDeployment resource, ApiCallAccounting accounting) {
+        String name = resource.getMetadata().getName();
+        String namespace = String.valueOf(resource.getMetadata().getNamespace());
+        DistributionSummary.builder("phee.operator.reconcile.api.requests")
+                .description("Kubernetes API requests made by one reconcile of a PaymentHubDeployment")
+                .tag("name", name)
+                .tag("namespace", namespace)
+                .register(registry)
+                .record(accounting.getRequests());
+        DistributionSummary.builder("phee.operator.reconcile.api.bytes")
+                .description("Body bytes exchanged with the Kubernetes API server by one reconcile of a PaymentHubDeployment")
+                .baseUnit("bytes")
+                .tag("name", name)
+                .tag("namespace", namespace)
+                .register(registry)
+                .record(accounting.getBytesSent() + accounting.getBytesReceived());
+        Timer.builder("phee.operator.reconcile.api.duration")
+                .description("Summed Kubernetes API latency of one reconcile of a PaymentHubDeployment")
+                .tag("name", name)
+                .tag("namespace", namespace)
+                .register(registry)
+                .record(accounting.getApiNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Counts a failed reconciliation that was rescheduled by the retry policy.
+     *
+     * @param failure Why the reconciliation failed.
+     */
+    public void recordRetry(ReconcileRetryPolicy.FailureType failure) {
+        Counter.builder("phee.operator.reconcile.retries")
+                .description("Failed reconciliations rescheduled for a retry")
+                .tag("reason", failure.name().toLowerCase())
+                .register(registry)
+                .increment();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+        registry.close();
+    }
+}
@@ -1,14 +1,22 @@
 package com.paymenthub.utils;
 
+import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.api.model.OwnerReference;
 import io.fabric8.kubernetes.api.model.OwnerReferenceBuilder;
-import com.paymenthub.customresource.PaymentHubDeployment;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 public class OwnerReferenceUtils {
 
+    /**
+     * Label holding the UID of the custom resource a dependent was rendered for. Unlike {@code app}, it is always set by
+     * the operator and overrides any value from the spec, so selecting by it only matches objects this operator created
+     * for that custom resource.
+     */
+    public static final String OWNER_UID_LABEL = "gazelle.mifos.io/owner-uid";
+
     /**
      * Creates a list of OwnerReferences for the given custom resource.
      * ClusterRole and ClusterRoleBinding cannot be deleted using owner references.
@@ -16,7 +24,7 @@ public class OwnerReferenceUtils {
      * @param resource The custom resource for which to create OwnerReferences.
      * @return A list containing one OwnerReference.
      */
-    public static List<OwnerReference> createOwnerReferences(PaymentHubDeployment resource) {
+    public static List<OwnerReference> createOwnerReferences(HasMetadata resource) {
         return Collections.singletonList(
             new OwnerReferenceBuilder()
                 .withApiVersion(resource.getApiVersion())
@@ -28,4 +36,16 @@ public class OwnerReferenceUtils {
                 .build()
         );
     }
+
+    /**
+     * Creates the labels marking an object as a dependent of the given custom resource, to be added to every object
+     * rendered for it, including cluster-scoped ones.
+     *
+     * @param resource The custom resource the object is rendered for.
+     * @return The owner UID label, or no label if the resource has no UID yet.
+     */
+    public static Map<String, String> createOwnerLabels(HasMetadata resource) {
+        String uid = resource.getMetadata().getUid();
+        return uid == null ? Collections.<String, String>emptyMap() : Collections.singletonMap(OWNER_UID_LABEL, uid);
+    }
 }
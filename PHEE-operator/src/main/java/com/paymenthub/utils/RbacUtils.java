@@ -3,7 +3,9 @@ package com.paymenthub.utils;
 import io.fabric8.kubernetes.api.model.*;
 import io.fabric8.kubernetes.api.model.rbac.*;
 import io.fabric8.kubernetes.client.KubernetesClient;
-import io.fabric8.kubernetes.client.dsl.Resource;
+import io.fabric8.kubernetes.client.dsl.NonDeletingOperation;
+import io.javaoperatorsdk.operator.api.reconciler.Context;
+import io.javaoperatorsdk.operator.processing.event.source.informer.Mappers;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,9 +18,11 @@ public class RbacUtils {
 
     private static final Logger log = LoggerFactory.getLogger(RbacUtils.class);
     private final KubernetesClient kubernetesClient;
+    private final boolean serverSideApply;
 
-    public RbacUtils(KubernetesClient kubernetesClient) {
+    public RbacUtils(KubernetesClient kubernetesClient, boolean serverSideApply) {
         this.kubernetesClient = kubernetesClient;
+        this.serverSideApply = serverSideApply;
     }
 
     /**
@@ -26,24 +30,16 @@ public class RbacUtils {
      * This method ensures that the ServiceAccount exists and is up-to-date based on the custom resource specifications.
      * 
      * @param resource The custom resource specifying the ServiceAccount configuration.
+     * @param context The reconciliation context providing access to the informer caches.
      */
-    public void reconcileServiceAccount(PaymentHubDeployment resource) {
+    public void reconcileServiceAccount(PaymentHubDeployment resource, Context<PaymentHubDeployment> context) {
         String saName = resource.getMetadata().getName() + "-sa";
         log.info("Reconciling ServiceAccount for resource: {}", resource.getMetadata().getName());
-        ServiceAccount serviceAccount = createServiceAccount(resource, saName);
+        ServiceAccount serviceAccount = FingerprintUtil.addFingerprint(createServiceAccount(resource, saName));
         log.debug("Created ServiceAccount spec: {}", serviceAccount);
 
-        Resource<ServiceAccount> serviceAccountResource = kubernetesClient.serviceAccounts()
-                .inNamespace(resource.getMetadata().getNamespace())
-                .withName(saName);
-
-        if (serviceAccountResource.get() == null) {
-            serviceAccountResource.create(serviceAccount);
-            log.info("Created new ServiceAccount: {}", saName);
-        } else {
-            serviceAccountResource.patch(serviceAccount);
-            log.info("Updated existing ServiceAccount: {}", saName);
-        }
+        ServiceAccount existingServiceAccount = InformerCacheUtil.getCachedResource(context, ServiceAccount.class, saName, resource.getMetadata().getNamespace());
+        ApplyUtil.applyIfChanged(kubernetesClient, serverSideApply, serviceAccount, existingServiceAccount, NonDeletingOperation::patch);
     }
 
     /**
@@ -53,12 +49,15 @@ public class RbacUtils {
      * @param saName The name to assign to the ServiceAccount.
      * @return The created ServiceAccount object.
      */
-    private ServiceAccount createServiceAccount(PaymentHubDeployment resource, String saName) {
+    ServiceAccount createServiceAccount(PaymentHubDeployment resource, String saName) {
         log.debug("Creating ServiceAccount spec for resource: {}", resource.getMetadata().getName());
         return new ServiceAccountBuilder()
                 .withNewMetadata()
                     .withName(saName)
                     .withNamespace(resource.getMetadata().getNamespace())
+                    .addToLabels("app", resource.getMetadata().getName())
+                    .addToLabels("app.kubernetes.io/managed-by", "ph-ee-operator")
+                    .addToLabels(OwnerReferenceUtils.createOwnerLabels(resource))
                     .withOwnerReferences(OwnerReferenceUtils.createOwnerReferences(resource)) 
                 .endMetadata()
                 .build();
@@ -69,24 +68,16 @@ public class RbacUtils {
      * This method ensures that the Role exists and is up-to-date based on the custom resource specifications.
      * 
      * @param resource The custom resource specifying the Role configuration.
+     * @param context The reconciliation context providing access to the informer caches.
      */
-    public void reconcileRole(PaymentHubDeployment resource) {
+    public void reconcileRole(PaymentHubDeployment resource, Context<PaymentHubDeployment> context) {
         String roleName = resource.getMetadata().getName() + "-role";
         log.info("Reconciling Role for resource: {}", resource.getMetadata().getName());
-        Role role = createRole(resource, roleName);
+        Role role = FingerprintUtil.addFingerprint(createRole(resource, roleName));
         log.debug("Created Role spec: {}", role);
 
-        Resource<Role> roleResource = kubernetesClient.rbac().roles()
-                .inNamespace(resource.getMetadata().getNamespace())
-                .withName(roleName);
-
-        if (roleResource.get() == null) {
-            roleResource.create(role);
-            log.info("Created new Role: {}", roleName);
-        } else {
-            roleResource.patch(role);
-            log.info("Updated existing Role: {}", roleName);
-        }
+        Role existingRole = InformerCacheUtil.getCachedResource(context, Role.class, roleName, resource.getMetadata().getNamespace());
+        ApplyUtil.applyIfChanged(kubernetesClient, serverSideApply, role, existingRole, NonDeletingOperation::patch);
     }
 
     /**
@@ -96,12 +87,15 @@ public class RbacUtils {
      * @param roleName The name to assign to the Role.
      * @return The created Role object.
      */
-    private Role createRole(PaymentHubDeployment resource, String roleName) {
+    Role createRole(PaymentHubDeployment resource, String roleName) {
         log.debug("Creating Role spec for resource: {}", resource.getMetadata().getName());
         return new RoleBuilder()
                 .withNewMetadata()
                     .withName(roleName)
                     .withNamespace(resource.getMetadata().getNamespace())
+                    .addToLabels("app", resource.getMetadata().getName())
+                    .addToLabels("app.kubernetes.io/managed-by", "ph-ee-operator")
+                    .addToLabels(OwnerReferenceUtils.createOwnerLabels(resource))
                     .withOwnerReferences(OwnerReferenceUtils.createOwnerReferences(resource)) 
                 .endMetadata()
                 .addNewRule()
@@ -117,24 +111,16 @@ public class RbacUtils {
      * This method ensures that the RoleBinding exists and is up-to-date based on the custom resource specifications.
      * 
      * @param resource The custom resource specifying the RoleBinding configuration.
+     * @param context The reconciliation context providing access to the informer caches.
      */
-    public void reconcileRoleBinding(PaymentHubDeployment resource) {
+    public void reconcileRoleBinding(PaymentHubDeployment resource, Context<PaymentHubDeployment> context) {
         String roleBindingName = resource.getMetadata().getName() + "-rolebinding";
         log.info("Reconciling RoleBinding for resource: {}", resource.getMetadata().getName());
-        RoleBinding roleBinding = createRoleBinding(resource, roleBindingName);
+        RoleBinding roleBinding = FingerprintUtil.addFingerprint(createRoleBinding(resource, roleBindingName));
         log.debug("Created RoleBinding spec: {}", roleBinding);
 
-        Resource<RoleBinding> roleBindingResource = kubernetesClient.rbac().roleBindings()
-                .inNamespace(resource.getMetadata().getNamespace())
-                .withName(roleBindingName);
-
-        if (roleBindingResource.get() == null) {
-            roleBindingResource.create(roleBinding);
-            log.info("Created new RoleBinding: {}", roleBindingName);
-        } else {
-            roleBindingResource.patch(roleBinding);
-            log.info("Updated existing RoleBinding: {}", roleBindingName);
-        }
+        RoleBinding existingRoleBinding = InformerCacheUtil.getCachedResource(context, RoleBinding.class, roleBindingName, resource.getMetadata().getNamespace());
+        ApplyUtil.applyIfChanged(kubernetesClient, serverSideApply, roleBinding, existingRoleBinding, NonDeletingOperation::patch);
     }
 
     /**
@@ -144,12 +130,15 @@ public class RbacUtils {
      * @param roleBindingName The name to assign to the RoleBinding.
      * @return The created RoleBinding object.
      */
-    private RoleBinding createRoleBinding(PaymentHubDeployment resource, String roleBindingName) {
+    RoleBinding createRoleBinding(PaymentHubDeployment resource, String roleBindingName) {
         log.debug("Creating RoleBinding spec for resource: {}", resource.getMetadata().getName());
         return new RoleBindingBuilder()
                 .withNewMetadata()
                     .withName(roleBindingName)
                     .withNamespace(resource.getMetadata().getNamespace())
+                    .addToLabels("app", resource.getMetadata().getName())
+                    .addToLabels("app.kubernetes.io/managed-by", "ph-ee-operator")
+                    .addToLabels(OwnerReferenceUtils.createOwnerLabels(resource))
                     .withOwnerReferences(OwnerReferenceUtils.createOwnerReferences(resource)) 
                 .endMetadata()
                 .withSubjects(new SubjectBuilder()
@@ -165,28 +154,44 @@ public class RbacUtils {
                 .build();
     }
 
+    /**
+     * Returns the name of the ClusterRole of a custom resource. Cluster-scoped names are shared by all namespaces, so
+     * the namespace is part of the name and identical custom resources in two environments get separate objects.
+     * 
+     * @param resource The custom resource.
+     * @return The ClusterRole name.
+     */
+    public static String clusterRoleName(PaymentHubDeployment resource) {
+        return resource.getMetadata().getNamespace() + "-" + resource.getMetadata().getName() + "-clusterrole";
+    }
+
+    /**
+     * Returns the name of the ClusterRoleBinding of a custom resource, qualified with its namespace like
+     * {@link #clusterRoleName}.
+     * 
+     * @param resource The custom resource.
+     * @return The ClusterRoleBinding name.
+     */
+    public static String clusterRoleBindingName(PaymentHubDeployment resource) {
+        return resource.getMetadata().getNamespace() + "-" + resource.getMetadata().getName() + "-clusterrolebinding";
+    }
+
     /**
      * Reconciles the ClusterRole for the given custom resource.
      * This method ensures that the ClusterRole exists and is up-to-date based on the custom resource specifications.
      * 
      * @param resource The custom resource specifying the ClusterRole configuration.
+     * @param context The reconciliation context providing access to the informer caches.
      */
-    public void reconcileClusterRole(PaymentHubDeployment resource) {
-        String clusterRoleName = resource.getMetadata().getName() + "-clusterrole";
+    public void reconcileClusterRole(PaymentHubDeployment resource, Context<PaymentHubDeployment> context) {
+        String clusterRoleName = clusterRoleName(resource);
         log.info("Reconciling ClusterRole for resource: {}", resource.getMetadata().getName());
-        ClusterRole clusterRole = createClusterRole(resource, clusterRoleName);
+        deleteLegacyObject(resource, context, ClusterRole.class, resource.getMetadata().getName() + "-clusterrole");
+        ClusterRole clusterRole = FingerprintUtil.addFingerprint(createClusterRole(resource, clusterRoleName));
         log.debug("Created ClusterRole spec: {}", clusterRole);
 
-        Resource<ClusterRole> clusterRoleResource = kubernetesClient.rbac().clusterRoles()
-                .withName(clusterRoleName);
-
-        if (clusterRoleResource.get() == null) {
-            clusterRoleResource.create(clusterRole);
-            log.info("Created new ClusterRole: {}", clusterRoleName);
-        } else {
-            clusterRoleResource.patch(clusterRole);
-            log.info("Updated existing ClusterRole: {}", clusterRoleName);
-        }
+        ClusterRole existingClusterRole = InformerCacheUtil.getCachedResource(context, ClusterRole.class, clusterRoleName, null);
+        ApplyUtil.applyIfChanged(kubernetesClient, serverSideApply, clusterRole, existingClusterRole, NonDeletingOperation::patch);
     }
 
     /**
@@ -196,12 +201,18 @@ public class RbacUtils {
      * @param clusterRoleName The name to assign to the ClusterRole.
      * @return The created ClusterRole object.
      */
-    private ClusterRole createClusterRole(PaymentHubDeployment resource, String clusterRoleName) {
+    ClusterRole createClusterRole(PaymentHubDeployment resource, String clusterRoleName) {
         log.debug("Creating ClusterRole spec for resource: {}", resource.getMetadata().getName());
         return new ClusterRoleBuilder()
                 .withNewMetadata()
                     .withName(clusterRoleName)
-                    .withOwnerReferences(OwnerReferenceUtils.createOwnerReferences(resource)) 
+                    .addToLabels("app", resource.getMetadata().getName())
+                    .addToLabels("app.kubernetes.io/managed-by", "ph-ee-operator")
+                    .addToLabels(OwnerReferenceUtils.createOwnerLabels(resource))
+                    // A cluster-scoped object cannot have a namespaced owner, so it is mapped back to the CR through
+                    // annotations and deleted by the controller's cleanup instead of the garbage collector
+                    .addToAnnotations(Mappers.DEFAULT_ANNOTATION_FOR_NAME, resource.getMetadata().getName())
+                    .addToAnnotations(Mappers.DEFAULT_ANNOTATION_FOR_NAMESPACE, resource.getMetadata().getNamespace())
                 .endMetadata()
                 .addNewRule()
                     .withApiGroups("")
@@ -221,23 +232,17 @@ public class RbacUtils {
      * This method ensures that the ClusterRoleBinding exists and is up-to-date based on the custom resource specifications.
      * 
      * @param resource The custom resource specifying the ClusterRoleBinding configuration.
+     * @param context The reconciliation context providing access to the informer caches.
      */
-    public void reconcileClusterRoleBinding(PaymentHubDeployment resource) {
-        String clusterRoleBindingName = resource.getMetadata().getName() + "-clusterrolebinding";
+    public void reconcileClusterRoleBinding(PaymentHubDeployment resource, Context<PaymentHubDeployment> context) {
+        String clusterRoleBindingName = clusterRoleBindingName(resource);
         log.info("Reconciling ClusterRoleBinding for resource: {}", resource.getMetadata().getName());
-        ClusterRoleBinding clusterRoleBinding = createClusterRoleBinding(resource, clusterRoleBindingName);
+        deleteLegacyObject(resource, context, ClusterRoleBinding.class, resource.getMetadata().getName() + "-clusterrolebinding");
+        ClusterRoleBinding clusterRoleBinding = FingerprintUtil.addFingerprint(createClusterRoleBinding(resource, clusterRoleBindingName));
         log.debug("Created ClusterRoleBinding spec: {}", clusterRoleBinding);
 
-        Resource<ClusterRoleBinding> clusterRoleBindingResource = kubernetesClient.rbac().clusterRoleBindings()
-                .withName(clusterRoleBindingName);
-
-        if (clusterRoleBindingResource.get() == null) {
-            clusterRoleBindingResource.create(clusterRoleBinding);
-            log.info("Created new ClusterRoleBinding: {}", clusterRoleBindingName);
-        } else {
-            clusterRoleBindingResource.patch(clusterRoleBinding);
-            log.info("Updated existing ClusterRoleBinding: {}", clusterRoleBindingName);
-        }
+        ClusterRoleBinding existingClusterRoleBinding = InformerCacheUtil.getCachedResource(context, ClusterRoleBinding.class, clusterRoleBindingName, null);
+        ApplyUtil.applyIfChanged(kubernetesClient, serverSideApply, clusterRoleBinding, existingClusterRoleBinding, NonDeletingOperation::patch);
     }
 
     /**
@@ -247,12 +252,18 @@ public class RbacUtils {
      * @param clusterRoleBindingName The name to assign to the ClusterRoleBinding.
      * @return The created ClusterRoleBinding object.
      */
-    private ClusterRoleBinding createClusterRoleBinding(PaymentHubDeployment resource, String clusterRoleBindingName) {
+    ClusterRoleBinding createClusterRoleBinding(PaymentHubDeployment resource, String clusterRoleBindingName) {
         log.debug("Creating ClusterRoleBinding spec for resource: {}", resource.getMetadata().getName());
         return new ClusterRoleBindingBuilder()
                 .withNewMetadata()
                     .withName(clusterRoleBindingName)
-                    .withOwnerReferences(OwnerReferenceUtils.createOwnerReferences(resource)) 
+                    .addToLabels("app", resource.getMetadata().getName())
+                    .addToLabels("app.kubernetes.io/managed-by", "ph-ee-operator")
+                    .addToLabels(OwnerReferenceUtils.createOwnerLabels(resource))
+                    // A cluster-scoped object cannot have a namespaced owner, so it is mapped back to the CR through
+                    // annotations and deleted by the controller's cleanup instead of the garbage collector
+                    .addToAnnotations(Mappers.DEFAULT_ANNOTATION_FOR_NAME, resource.getMetadata().getName())
+                    .addToAnnotations(Mappers.DEFAULT_ANNOTATION_FOR_NAMESPACE, resource.getMetadata().getNamespace())
                 .endMetadata()
                 .withSubjects(new SubjectBuilder()
                         .withKind("ServiceAccount")
@@ -262,9 +273,32 @@ public class RbacUtils {
                 .withRoleRef(new RoleRefBuilder()
                         .withApiGroup("rbac.authorization.k8s.io")
                         .withKind("ClusterRole")
-                        .withName(resource.getMetadata().getName() + "-clusterrole")
+                        .withName(clusterRoleName(resource))
                         .build())
                 .build();
     }
 
+    /**
+     * Deletes a cluster-scoped object left under the name used before cluster-scoped names included the namespace, if
+     * the informer cache holds one and its primary annotations point at this custom resource. An object with the same
+     * name written for a custom resource in another namespace is left alone.
+     * 
+     * @param resource The custom resource being reconciled.
+     * @param context The reconciliation context providing access to the informer caches.
+     * @param type The cluster-scoped kind.
+     * @param legacyName The name the object was created with before.
+     */
+    private <R extends HasMetadata> void deleteLegacyObject(PaymentHubDeployment resource, Context<PaymentHubDeployment> context,
+                                                            Class<R> type, String legacyName) {
+        R legacy = InformerCacheUtil.getCachedResource(context, type, legacyName, null);
+        if (legacy == null || legacy.getMetadata().getAnnotations() == null) {
+            return;
+        }
+        Map<String, String> annotations = legacy.getMetadata().getAnnotations();
+        if (resource.getMetadata().getName().equals(annotations.get(Mappers.DEFAULT_ANNOTATION_FOR_NAME))
+                && resource.getMetadata().getNamespace().equals(annotations.get(Mappers.DEFAULT_ANNOTATION_FOR_NAMESPACE))) {
+            kubernetesClient.resource(legacy).withPropagationPolicy(DeletionPropagation.BACKGROUND).delete();
+            log.info("Deleted {} {} left under its name without namespace.", legacy.getKind(), legacyName);
+        }
+    }
 }
@@ -0,0 +1,163 @@
+package com.paymenthub.utils;
+
+import io.fabric8.kubernetes.api.model.Status;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.javaoperatorsdk.operator.processing.event.ResourceID;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Decides when a failed reconciliation of a custom resource is retried, based on why it failed.
+ *
+ * Failures are classified from the {@link KubernetesClientException} in the cause chain. A conflict (409) means the
+ * object was written from stale cache state, so it is retried right away against the cache, which has usually caught
+ * up by then; only repeated conflicts fall back to backing off. Everything else backs off with decorrelated jitter per
+ * custom resource: each delay is drawn at random between the base delay and three times the previous one, capped at the
+ * maximum, so resources that failed together after an API server hiccup spread their retries out instead of retrying
+ * in lockstep. A server-provided {@code retryAfterSeconds}, sent with 429 responses from API priority and fairness, is a
+ * lower bound on the delay. The HTTP client has already retried 429 and 5xx responses a few times by the time a
+ * failure reaches the reconciler. Permanent failures are not rescheduled at all: the controllers report them and wait
+ * for the next event on the custom resource or its dependents.
+ */
+public class ReconcileRetryPolicy {
+
+    /**
+     * Why a reconciliation failed, as far as retrying is concerned.
+     */
+    public enum FailureType {
+        /** The API server rejected a write made from a stale resource version. */
+        CONFLICT,
+        /** The API server asked the client to slow down. */
+        THROTTLED,
+        /** A server error, timeout or connection failure that may go away on its own. */
+        TRANSIENT,
+        /** Any other failure, e.g. an invalid object or missing permissions, which needs a change to succeed and is not retried. */
+        PERMANENT
+    }
+
+    // Conflicts in a row retried without delay before backing off like any other failure
+    private static final int MAX_IMMEDIATE_CONFLICT_RETRIES = 3;
+
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final Map<ResourceID, RetryState> states = new ConcurrentHashMap<>();
+
+    private static class RetryState {
+        long previousDelayMillis;
+        int conflicts;
+    }
+
+    /**
+     * @param baseDelayMillis The smallest delay before retrying a failed reconciliation.
+     * @param maxDelayMillis The largest delay before retrying a failed reconciliation.
+     */
+    public ReconcileRetryPolicy(long baseDelayMillis, long maxDelayMillis) {
+        this.baseDelayMillis = Math.max(1, baseDelayMillis);
+        this.maxDelayMillis = Math.max(this.baseDelayMillis, maxDelayMillis);
+    }
+
+    /**
+     * Creates a retry policy from the RETRY_BASE_DELAY_MILLIS and RETRY_MAX_DELAY_MILLIS environment variables.
+     *
+     * @return The configured retry policy.
+     */
+    public static ReconcileRetryPolicy fromEnvironment() {
+        return new ReconcileRetryPolicy(
+                ConfigUtil.getInt("RETRY_BASE_DELAY_MILLIS", 1000),
+                ConfigUtil.getInt("RETRY_MAX_DELAY_MILLIS", 300000));
+    }
+
+    /**
+     * Creates a retry policy with the default delays of one second up to five minutes.
+     *
+     * @return The default retry policy.
+     */
+    public static ReconcileRetryPolicy defaults() {
+        return new ReconcileRetryPolicy(1000, 300000);
+    }
+
+    /**
+     * Classifies a reconciliation failure.
+     *
+     * @param failure The exception the reconciliation failed with.
+     * @return The failure type.
+     */
+    public static FailureType classify(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            // Without an HTTP status code no response was received, so the cause further down tells what went wrong
+            int code = cause instanceof KubernetesClientException ? ((KubernetesClientException) cause).getCode() : 0;
+            if (code == 409) {
+                return FailureType.CONFLICT;
+            }
+            if (code == 429) {
+                return FailureType.THROTTLED;
+            }
+            if (code == 408 || code >= 500) {
+                return FailureType.TRANSIENT;
+            }
+            if (code > 0) {
+                return FailureType.PERMANENT;
+            }
+            if (cause instanceof IOException || cause instanceof TimeoutException) {
+                return FailureType.TRANSIENT;
+            }
+        }
+        return FailureType.PERMANENT;
+    }
+
+    /**
+     * Computes how long to wait before reconciling the custom resource again after a failure, and remembers it as the
+     * previous delay for the next failure.
+     *
+     * @param resourceID The custom resource whose reconciliation failed.
+     * @param type The classified failure.
+     * @param failure The exception the reconciliation failed with.
+     * @return The delay before the next attempt; zero to retry immediately.
+     */
+    public Duration nextDelay(ResourceID resourceID, FailureType type, Throwable failure) {
+        RetryState state = states.computeIfAbsent(resourceID, id -> new RetryState());
+        synchronized (state) {
+            if (type == FailureType.CONFLICT && ++state.conflicts <= MAX_IMMEDIATE_CONFLICT_RETRIES) {
+                return Duration.ZERO;
+            }
+            long previous = Math.max(baseDelayMillis, state.previousDelayMillis);
+            long upper = Math.min(maxDelayMillis, previous * 3);
+            long delay = upper > baseDelayMillis ? ThreadLocalRandom.current().nextLong(baseDelayMillis, upper + 1) : baseDelayMillis;
+            delay = Math.max(delay, retryAfterMillis(failure));
+            state.previousDelayMillis = Math.min(delay, maxDelayMillis);
+            return Duration.ofMillis(delay);
+        }
+    }
+
+    /**
+     * Forgets the retry state of a custom resource, after it reconciled successfully or was deleted.
+     *
+     * @param resourceID The custom resource.
+     */
+    public void reset(ResourceID resourceID) {
+        states.remove(resourceID);
+    }
+
+    /**
+     * Reads the delay the API server asked for from the status details of a Kubernetes client exception in the cause
+     * chain.
+     *
+     * @return The requested delay in milliseconds, or 0 if none was given.
+     */
+    private static long retryAfterMillis(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof KubernetesClientException) {
+                Status status = ((KubernetesClientException) cause).getStatus();
+                if (status != null && status.getDetails() != null && status.getDetails().getRetryAfterSeconds() != null) {
+                    return status.getDetails().getRetryAfterSeconds() * 1000L;
+                }
+            }
+        }
+        return 0;
+    }
+}
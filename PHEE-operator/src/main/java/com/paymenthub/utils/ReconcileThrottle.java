@@ -0,0 +1,230 @@
+package com.paymenthub.utils;
+
+import io.javaoperatorsdk.operator.processing.event.ResourceID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits how fast the controller starts reconciliations, using a global token bucket and one token bucket per namespace.
+ *
+ * A reconciliation that finds no token available is deferred until one is expected to be free. Deferred resources are
+ * given consecutive slots one token interval apart, in the order they were throttled, so they wake up as the buckets
+ * refill rather than all at once when the next token is due. The number of custom resources waiting in this deferral
+ * queue is bounded: once it is full, further throttled resources are deferred by the time it takes to drain the whole
+ * queue instead of joining it, so a burst cannot grow the backlog without limit.
+ *
+ * When the operator is sharded, every replica throttles only its own reconciliations, so the global limit is shared
+ * out: each replica allows its share of the global rate and burst, divided by the number of live shard members.
+ *
+ * A namespace bucket that has refilled completely and has no slot reserved is in the same state as a new one, so it is
+ * dropped once idle; the number of buckets follows the namespaces with recent reconciliations rather than every
+ * namespace ever seen.
+ */
+public class ReconcileThrottle {
+
+    private static final Logger log = LoggerFactory.getLogger(ReconcileThrottle.class);
+
+    // How often idle namespace buckets are looked for
+    private static final long EVICTION_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final double globalQps;
+    private final int globalBurst;
+    private final double namespaceQps;
+    private final int namespaceBurst;
+    private final int maxQueueDepth;
+
+    private final TokenBucket globalBucket;
+    private int shardCount = 1;
+    private final Map<String, NamespaceBucket> namespaceBuckets = new HashMap<>();
+    private final Set<ResourceID> deferred = new HashSet<>();
+    // First free wake-up slot of the global bucket; the namespace buckets keep their own
+    private long globalNextSlotNanos;
+    private long lastEvictionNanos = System.nanoTime();
+
+    /**
+     * @param globalQps Reconciliations per second allowed across all namespaces, or 0 for no limit.
+     * @param globalBurst Maximum burst of reconciliations across all namespaces.
+     * @param namespaceQps Reconciliations per second allowed in each namespace, or 0 for no limit.
+     * @param namespaceBurst Maximum burst of reconciliations in each namespace.
+     * @param maxQueueDepth Maximum number of custom resources waiting for a token, or 0 for no limit.
+     */
+    public ReconcileThrottle(double globalQps, int globalBurst, double namespaceQps, int namespaceBurst, int maxQueueDepth) {
+        this.globalQps = globalQps;
+        this.globalBurst = globalBurst;
+        this.namespaceQps = namespaceQps;
+        this.namespaceBurst = namespaceBurst;
+        this.maxQueueDepth = maxQueueDepth;
+        this.globalBucket = globalQps > 0 ? new TokenBucket(globalQps, globalBurst) : null;
+        this.globalNextSlotNanos = System.nanoTime();
+    }
+
+    /**
+     * Creates a throttle that never limits reconciliations.
+     *
+     * @return An unlimited throttle.
+     */
+    public static ReconcileThrottle unlimited() {
+        return new ReconcileThrottle(0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Creates a throttle from the RATE_LIMIT_* and MAX_RETRY_QUEUE_DEPTH environment variables.
+     *
+     * @return The configured throttle.
+     */
+    public static ReconcileThrottle fromEnvironment() {
+        return new ReconcileThrottle(
+                ConfigUtil.getDouble("RATE_LIMIT_GLOBAL_QPS", 0),
+                ConfigUtil.getInt("RATE_LIMIT_GLOBAL_BURST", 50),
+                ConfigUtil.getDouble("RATE_LIMIT_NAMESPACE_QPS", 0),
+                ConfigUtil.getInt("RATE_LIMIT_NAMESPACE_BURST", 20),
+                ConfigUtil.getInt("MAX_RETRY_QUEUE_DEPTH", 0));
+    }
+
+    /**
+     * Sets the number of live shard members the global limit is divided among.
+     *
+     * @param members The number of operator replicas sharing the global limit, at least one.
+     */
+    public synchronized void setShardCount(int members) {
+        int count = Math.max(1, members);
+        if (count == shardCount) {
+            return;
+        }
+        shardCount = count;
+        if (globalBucket != null) {
+            globalBucket.setRate(globalShareQps(), (int) Math.ceil((double) globalBurst / count));
+            log.info("Reconcile rate limit shared by {} shards: {} per second globally on this replica.", count, globalShareQps());
+        }
+    }
+
+    /**
+     * Tries to take a token for reconciling the given custom resource.
+     *
+     * @param resourceID The custom resource about to be reconciled.
+     * @return Empty if the reconciliation may proceed now, otherwise the delay after which it should be retried.
+     */
+    public synchronized Optional<Duration> tryAcquire(ResourceID resourceID) {
+        if (globalBucket == null && namespaceQps <= 0) {
+            return Optional.empty();
+        }
+
+        long now = System.nanoTime();
+        evictIdleNamespaceBuckets(now);
+
+        NamespaceBucket namespaceBucket = null;
+        if (namespaceQps > 0) {
+            namespaceBucket = namespaceBuckets.computeIfAbsent(resourceID.getNamespace().orElse(""),
+                    ns -> new NamespaceBucket(new TokenBucket(namespaceQps, namespaceBurst)));
+        }
+
+        long waitNanos = Math.max(
+                globalBucket != null ? globalBucket.nanosUntilAvailable() : 0,
+                namespaceBucket != null ? namespaceBucket.bucket.nanosUntilAvailable() : 0);
+
+        if (waitNanos == 0) {
+            if (globalBucket != null) {
+                globalBucket.take();
+            }
+            if (namespaceBucket != null) {
+                namespaceBucket.bucket.take();
+            }
+            deferred.remove(resourceID);
+            return Optional.empty();
+        }
+
+        if (maxQueueDepth > 0 && !deferred.contains(resourceID) && deferred.size() >= maxQueueDepth) {
+            Duration overflowDelay = drainTime();
+            log.warn("Reconcile queue is full ({} resources), deferring {} by {} ms.",
+                    deferred.size(), resourceID, overflowDelay.toMillis());
+            return Optional.of(overflowDelay);
+        }
+
+        // Take the next free slot of every bucket involved and reserve the slot after it for the next deferral
+        long wakeNanos = now + waitNanos;
+        if (globalBucket != null) {
+            wakeNanos = Math.max(wakeNanos, globalNextSlotNanos);
+        }
+        if (namespaceBucket != null) {
+            wakeNanos = Math.max(wakeNanos, namespaceBucket.nextSlotNanos);
+        }
+        if (globalBucket != null) {
+            globalNextSlotNanos = wakeNanos + tokenIntervalNanos(globalShareQps());
+        }
+        if (namespaceBucket != null) {
+            namespaceBucket.nextSlotNanos = wakeNanos + tokenIntervalNanos(namespaceQps);
+        }
+
+        deferred.add(resourceID);
+        return Optional.of(Duration.ofNanos(wakeNanos - now));
+    }
+
+    /**
+     * Forgets a custom resource that no longer needs reconciling, e.g. because it was deleted while deferred.
+     *
+     * @param resourceID The custom resource to forget.
+     */
+    public synchronized void release(ResourceID resourceID) {
+        deferred.remove(resourceID);
+    }
+
+    /**
+     * Returns the number of custom resources currently waiting for a token.
+     *
+     * @return The current queue depth.
+     */
+    public synchronized int getQueueDepth() {
+        return deferred.size();
+    }
+
+    // Drops namespace buckets that are full and have no wake-up slot reserved in the future, at most once per interval
+    private void evictIdleNamespaceBuckets(long now) {
+        if (now - lastEvictionNanos < EVICTION_INTERVAL_NANOS) {
+            return;
+        }
+        lastEvictionNanos = now;
+        namespaceBuckets.values().removeIf(namespaceBucket -> namespaceBucket.bucket.isFull()
+                && namespaceBucket.nextSlotNanos - now <= 0);
+    }
+
+    // This replica's share of the global rate
+    private double globalShareQps() {
+        return globalQps / shardCount;
+    }
+
+    private static long tokenIntervalNanos(double qps) {
+        return (long) Math.ceil(1_000_000_000L / qps);
+    }
+
+    // Time needed to drain a full queue at the slowest configured rate
+    private Duration drainTime() {
+        double rate = globalQps > 0 ? globalShareQps() : namespaceQps;
+        if (globalQps > 0 && namespaceQps > 0) {
+            rate = Math.min(globalShareQps(), namespaceQps);
+        }
+        return Duration.ofMillis((long) Math.ceil(maxQueueDepth / rate * 1000));
+    }
+
+    /**
+     * The token bucket of a namespace and the first free wake-up slot for resources deferred on it.
+     */
+    private static final class NamespaceBucket {
+
+        private final TokenBucket bucket;
+        private long nextSlotNanos;
+
+        private NamespaceBucket(TokenBucket bucket) {
+            this.bucket = bucket;
+            this.nextSlotNanos = System.nanoTime();
+        }
+    }
+}
@@ -2,7 +2,8 @@ package com.paymenthub.utils;
 
 import io.fabric8.kubernetes.api.model.*;
 import io.fabric8.kubernetes.client.KubernetesClient;
-import io.fabric8.kubernetes.client.dsl.Resource;
+import io.fabric8.kubernetes.client.dsl.NonDeletingOperation;
+import io.javaoperatorsdk.operator.api.reconciler.Context;
 
 import java.util.Base64;
 import java.util.logging.Logger;
@@ -18,33 +19,27 @@ import com.paymenthub.utils.OwnerReferenceUtils;
 public class ResourceUtils {
     private static final Logger log = Logger.getLogger(ResourceUtils.class.getName());
     private final KubernetesClient kubernetesClient;
+    private final boolean serverSideApply;
 
-    public ResourceUtils(KubernetesClient kubernetesClient) {
+    public ResourceUtils(KubernetesClient kubernetesClient, boolean serverSideApply) {
         this.kubernetesClient = kubernetesClient;
+        this.serverSideApply = serverSideApply;
     }
 
     /**
      * Reconciles the ConfigMap for the given custom resource. Creates or updates the ConfigMap as necessary.
      * 
      * @param resource The custom resource containing the specifications for the ConfigMap.
+     * @param context The reconciliation context providing access to the informer caches.
      */
-    public void reconcileConfigmap(PaymentHubDeployment resource) {
+    public void reconcileConfigmap(PaymentHubDeployment resource, Context<PaymentHubDeployment> context) {
         String name = resource.getMetadata().getName() + "-configmap";
         log.info("Reconciling ConfigMap for resource: " + resource.getMetadata().getName());
-        ConfigMap configMap = createConfigMap(resource, name);
+        ConfigMap configMap = FingerprintUtil.addFingerprint(createConfigMap(resource, name));
         log.info("Created ConfigMap spec: " + configMap);
 
-        Resource<ConfigMap> configMapResource = kubernetesClient.configMaps()
-                .inNamespace(resource.getMetadata().getNamespace())
-                .withName(name);
-
-        if (configMapResource.get() == null) {
-            configMapResource.create(configMap);
-            log.info("Created new ConfigMap: " + name);
-        } else {
-            configMapResource.patch(configMap);
-            log.info("Updated existing ConfigMap: " + name);
-        }
+        ConfigMap existingConfigMap = InformerCacheUtil.getCachedResource(context, ConfigMap.class, name, resource.getMetadata().getNamespace());
+        ApplyUtil.applyIfChanged(kubernetesClient, serverSideApply, configMap, existingConfigMap, NonDeletingOperation::patch);
     }
 
     /**
@@ -54,7 +49,7 @@ public class ResourceUtils {
      * @param name The name of the ConfigMap.
      * @return The created ConfigMap object.
      */
-    private ConfigMap createConfigMap(PaymentHubDeployment resource, String name) {
+    ConfigMap createConfigMap(PaymentHubDeployment resource, String name) {
         log.info("Creating ConfigMap spec for resource: " + resource.getMetadata().getName());
         
         Map<String, String> data = new HashMap<>();
@@ -71,6 +66,9 @@ public class ResourceUtils {
                 .withNewMetadata()
                     .withName(name)
                     .withNamespace(resource.getMetadata().getNamespace())
+                    .addToLabels("app", resource.getMetadata().getName())
+                    .addToLabels("app.kubernetes.io/managed-by", "ph-ee-operator")
+                    .addToLabels(OwnerReferenceUtils.createOwnerLabels(resource))
                     .withOwnerReferences(OwnerReferenceUtils.createOwnerReferences(resource))
                 .endMetadata()
                 .addToData(data) // Add the configuration properties data
@@ -82,24 +80,16 @@ public class ResourceUtils {
      * Reconciles the Secret for the given custom resource. Creates or updates the Secret as necessary.
      * 
      * @param resource The custom resource containing the specifications for the Secret.
+     * @param context The reconciliation context providing access to the informer caches.
      */
-    public void reconcileSecret(PaymentHubDeployment resource) {
+    public void reconcileSecret(PaymentHubDeployment resource, Context<PaymentHubDeployment> context) {
         String secretName = resource.getMetadata().getName() + "-secret";
         log.info("Reconciling Secret for resource: " + resource.getMetadata().getName());
-        Secret secret = createSecret(resource, secretName);
+        Secret secret = FingerprintUtil.addFingerprint(createSecret(resource, secretName));
         log.info("Created Secret spec: " + secret);
 
-        Resource<Secret> secretResource = kubernetesClient.secrets()
-                .inNamespace(resource.getMetadata().getNamespace())
-                .withName(secretName);
-
-        if (secretResource.get() == null) {
-            secretResource.create(secret);
-            log.info("Created new Secret: " + secretName);
-        } else {
-            secretResource.patch(secret);
-            log.info("Updated existing Secret: " + secretName);
-        }
+        Secret existingSecret = InformerCacheUtil.getCachedResource(context, Secret.class, secretName, resource.getMetadata().getNamespace());
+        ApplyUtil.applyIfChanged(kubernetesClient, serverSideApply, secret, existingSecret, NonDeletingOperation::patch);
     }
 
     /**
@@ -109,7 +99,7 @@ public class ResourceUtils {
      * @param secretName The name of the Secret.
      * @return The created Secret object.
      */
-    private Secret createSecret(PaymentHubDeployment resource, String secretName) {
+    Secret createSecret(PaymentHubDeployment resource, String secretName) {
         log.info("Creating Secret spec for resource: " + resource.getMetadata().getName());
 
         // Initialize the SecretBuilder with common metadata
@@ -117,6 +107,9 @@ public class ResourceUtils {
                 .withNewMetadata()
                     .withName(secretName)
                     .withNamespace(resource.getMetadata().getNamespace())
+                    .addToLabels("app", resource.getMetadata().getName())
+                    .addToLabels("app.kubernetes.io/managed-by", "ph-ee-operator")
+                    .addToLabels(OwnerReferenceUtils.createOwnerLabels(resource))
                     .withOwnerReferences(OwnerReferenceUtils.createOwnerReferences(resource))
                 .endMetadata();
 
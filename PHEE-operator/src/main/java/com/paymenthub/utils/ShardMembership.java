@@ -0,0 +1,207 @@
+package com.paymenthub.utils;
+
+import io.fabric8.kubernetes.api.model.coordination.v1.Lease;
+import io.fabric8.kubernetes.api.model.coordination.v1.LeaseBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.javaoperatorsdk.operator.processing.event.ResourceID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Tracks the operator replicas taking part in sharding and decides which replica owns each custom resource.
+ *
+ * Every replica heartbeats its own Lease labelled {@value #SHARD_LABEL}; the live members are the replicas whose
+ * Lease was renewed within its lease duration. Ownership is assigned with rendezvous hashing over the live members,
+ * so when a replica joins or leaves only the custom resources it gains or loses move, and every replica computes the
+ * same assignment without coordination.
+ *
+ * Sharding splits the reconciliations, and the API writes they make, between the replicas; it does not split the
+ * watches. Every replica keeps informers on all custom resources and dependents in the watched namespaces, so it can
+ * take over any custom resource from its cache as soon as the members change, and its memory use and watch traffic do
+ * not shrink as replicas are added.
+ */
+public class ShardMembership {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardMembership.class);
+
+    /**
+     * Label marking the Leases used as shard membership heartbeats.
+     */
+    public static final String SHARD_LABEL = "gazelle.mifos.io/operator-shard";
+
+    private final KubernetesClient kubernetesClient;
+    private final String namespace;
+    private final String identity;
+    private final Duration leaseDuration;
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private volatile List<String> members;
+    private ScheduledExecutorService heartbeat;
+
+    /**
+     * @param kubernetesClient The Kubernetes client used to read and write the membership Leases.
+     * @param namespace The namespace the membership Leases live in.
+     * @param identity The unique identity of this replica, e.g. its pod name.
+     * @param leaseDuration How long a member stays live without renewing its Lease.
+     */
+    public ShardMembership(KubernetesClient kubernetesClient, String namespace, String identity, Duration leaseDuration) {
+        this.kubernetesClient = kubernetesClient;
+        this.namespace = namespace;
+        this.identity = identity;
+        this.leaseDuration = leaseDuration;
+        this.members = Collections.singletonList(identity);
+    }
+
+    /**
+     * Creates a membership for an operator that is not sharded: this replica owns every custom resource.
+     *
+     * @return A membership that owns everything.
+     */
+    public static ShardMembership disabled() {
+        return new ShardMembership(null, null, "", Duration.ZERO);
+    }
+
+    /**
+     * Registers a callback invoked whenever the set of live members changes.
+     *
+     * @param listener The callback to invoke.
+     */
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Starts heartbeating this replica's Lease and refreshing the member list, three times per lease duration. The
+     * first heartbeat runs synchronously, so the member list is known before the first reconciliation.
+     */
+    public synchronized void start() {
+        if (kubernetesClient == null || heartbeat != null) {
+            return;
+        }
+        heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "shard-membership");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long periodMillis = Math.max(1000, leaseDuration.toMillis() / 3);
+        renew();
+        heartbeat.scheduleAtFixedRate(this::renew, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+        log.info("Shard membership started for {} in namespace {}.", identity, namespace);
+    }
+
+    /**
+     * Stops heartbeating and deletes this replica's Lease, so the remaining replicas take over its share immediately
+     * instead of after the lease expires.
+     */
+    public synchronized void stop() {
+        if (heartbeat == null) {
+            return;
+        }
+        heartbeat.shutdownNow();
+        heartbeat = null;
+        try {
+            kubernetesClient.leases().inNamespace(namespace).withName(leaseName()).delete();
+            log.info("Shard membership of {} released.", identity);
+        } catch (RuntimeException e) {
+            log.warn("Failed to release shard membership of {}: {}", identity, e.getMessage());
+        }
+    }
+
+    /**
+     * Checks whether this replica owns the given custom resource.
+     *
+     * @param resourceID The custom resource.
+     * @return true if this replica should reconcile the custom resource, false otherwise.
+     */
+    public boolean owns(ResourceID resourceID) {
+        List<String> current = members;
+        if (current.size() <= 1) {
+            return true;
+        }
+        String key = resourceID.getNamespace().orElse("") + "/" + resourceID.getName();
+        String owner = null;
+        long highest = Long.MIN_VALUE;
+        for (String member : current) {
+            long score = hash(member + "|" + key);
+            if (owner == null || score > highest) {
+                owner = member;
+                highest = score;
+            }
+        }
+        return identity.equals(owner);
+    }
+
+    /**
+     * Returns the identities of the live members, including this replica.
+     *
+     * @return The sorted live member identities.
+     */
+    public List<String> getMembers() {
+        return members;
+    }
+
+    private void renew() {
+        try {
+            ZonedDateTime now = ZonedDateTime.now();
+            Lease lease = new LeaseBuilder()
+                    .withNewMetadata()
+                        .withName(leaseName())
+                        .withNamespace(namespace)
+                        .addToLabels(SHARD_LABEL, "true")
+                        .addToLabels("app.kubernetes.io/managed-by", "ph-ee-operator")
+                    .endMetadata()
+                    .withNewSpec()
+                        .withHolderIdentity(identity)
+                        .withLeaseDurationSeconds((int) leaseDuration.getSeconds())
+                        .withRenewTime(now)
+                    .endSpec()
+                    .build();
+            kubernetesClient.resource(lease).fieldManager(ApplyUtil.FIELD_MANAGER).forceConflicts().serverSideApply();
+
+            TreeSet<String> live = kubernetesClient.leases().inNamespace(namespace).withLabel(SHARD_LABEL).list().getItems()
+                    .stream()
+                    .filter(l -> l.getSpec() != null && l.getSpec().getRenewTime() != null
+                            && l.getSpec().getLeaseDurationSeconds() != null
+                            && l.getSpec().getRenewTime().plusSeconds(l.getSpec().getLeaseDurationSeconds()).isAfter(now))
+                    .map(l -> l.getSpec().getHolderIdentity())
+                    .collect(Collectors.toCollection(TreeSet::new));
+            live.add(identity);
+
+            List<String> updated = Collections.unmodifiableList(live.stream().collect(Collectors.toList()));
+            if (!updated.equals(members)) {
+                log.info("Shard members changed from {} to {}.", members, updated);
+                members = updated;
+                listeners.forEach(Runnable::run);
+            }
+        } catch (RuntimeException e) {
+            // Keep the last known member list; peers treat this replica as gone only once its lease expires
+            log.warn("Failed to renew shard membership of {}: {}", identity, e.getMessage());
+        }
+    }
+
+    private String leaseName() {
+        return "ph-ee-operator-shard-" + identity;
+    }
+
+    // 64-bit FNV-1a, stable across JVMs unlike String.hashCode mixing
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= (b & 0xff);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
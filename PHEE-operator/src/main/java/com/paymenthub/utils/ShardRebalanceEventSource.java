@@ -0,0 +1,47 @@
+package com.paymenthub.utils;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.javaoperatorsdk.operator.processing.event.Event;
+import io.javaoperatorsdk.operator.processing.event.ResourceID;
+import io.javaoperatorsdk.operator.processing.event.source.AbstractEventSource;
+import io.javaoperatorsdk.operator.processing.event.source.IndexerResourceCache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Event source that triggers a reconciliation of every custom resource this replica owns whenever the shard members
+ * change, so custom resources taken over from a departed replica are reconciled without waiting for their next change.
+ */
+public class ShardRebalanceEventSource extends AbstractEventSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardRebalanceEventSource.class);
+
+    private final ShardMembership shardMembership;
+    private final IndexerResourceCache<? extends HasMetadata> primaryCache;
+
+    /**
+     * @param shardMembership The shard membership deciding which custom resources this replica owns.
+     * @param primaryCache The informer cache of the controller's custom resources.
+     */
+    public ShardRebalanceEventSource(ShardMembership shardMembership, IndexerResourceCache<? extends HasMetadata> primaryCache) {
+        this.shardMembership = shardMembership;
+        this.primaryCache = primaryCache;
+        shardMembership.addListener(this::rebalance);
+    }
+
+    private void rebalance() {
+        if (!isRunning()) {
+            return;
+        }
+        List<ResourceID> owned = primaryCache.keys()
+                .filter(shardMembership::owns)
+                .collect(Collectors.toList());
+        owned.forEach(resourceID -> getEventHandler().handleEvent(new Event(resourceID)));
+        log.info("Shard members are now {}, triggered reconciliation of {} owned resources.",
+                shardMembership.getMembers(), owned.size());
+    }
+}
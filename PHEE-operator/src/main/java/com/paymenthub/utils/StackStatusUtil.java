@@ -0,0 +1,144 @@
+package com.paymenthub.utils;
+
+import com.paymenthub.customresource.PaymentHubDeployment;
+import com.paymenthub.customresource.PaymentHubDeploymentStatus;
+import com.paymenthub.customresource.PaymentHubStack;
+import com.paymenthub.customresource.PaymentHubStackStatus;
+import io.javaoperatorsdk.operator.api.reconciler.UpdateControl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Utility class for updating the status of the PaymentHubStack custom resource from the state of its components.
+ */
+public class StackStatusUtil {
+
+    private static final Logger log = LoggerFactory.getLogger(StackStatusUtil.class);
+
+    /** The component waits for an earlier wave to become available. */
+    public static final String COMPONENT_WAITING = "Waiting";
+    /** The component's PaymentHubDeployment was written and is not available yet. */
+    public static final String COMPONENT_PROGRESSING = "Progressing";
+    /** The component's PaymentHubDeployment reconciled its current spec and its Deployment finished rolling out. */
+    public static final String COMPONENT_AVAILABLE = "Available";
+    /** The component is disabled; it does not hold back later waves. */
+    public static final String COMPONENT_DISABLED = "Disabled";
+    /** The component's Deployment rollout exceeded its progress deadline. */
+    public static final String COMPONENT_FAILED = "Failed";
+
+    /** Components are being rolled out. */
+    public static final String STACK_PROGRESSING = "Progressing";
+    /** Every component is available or disabled. */
+    public static final String STACK_AVAILABLE = "Available";
+    /** The component graph is invalid, or a component of the current wave failed. */
+    public static final String STACK_FAILED = "Failed";
+
+    /**
+     * Derives the phase of a component from the status of its PaymentHubDeployment.
+     *
+     * @param deployment The component's PaymentHubDeployment from the informer cache, or null if it does not exist yet.
+     * @return The component phase.
+     */
+    public static String componentPhase(PaymentHubDeployment deployment) {
+        if (deployment == null) {
+            return COMPONENT_PROGRESSING;
+        }
+        if (deployment.getSpec() != null && !Boolean.TRUE.equals(deployment.getSpec().getEnabled())) {
+            return COMPONENT_DISABLED;
+        }
+        PaymentHubDeploymentStatus status = deployment.getStatus();
+        if (status == null) {
+            return COMPONENT_PROGRESSING;
+        }
+        // Only a rollout past its progress deadline is a failure; a reconcile error is retried by the
+        // PaymentHubDeployment controller and leaves the component progressing
+        if (StatusUpdateUtil.ROLLOUT_FAILED.equals(status.getRolloutStatus())) {
+            return COMPONENT_FAILED;
+        }
+        // The status may still describe the previous spec until the PaymentHubDeployment controller has caught up
+        if (!Objects.equals(deployment.getMetadata().getGeneration(), status.getObservedGeneration())) {
+            return COMPONENT_PROGRESSING;
+        }
+        return status.isReady() ? COMPONENT_AVAILABLE : COMPONENT_PROGRESSING;
+    }
+
+    /**
+     * Checks whether a component no longer holds back the components depending on it.
+     *
+     * @param phase The component phase.
+     * @return true if the component is available or disabled.
+     */
+    public static boolean isSettled(String phase) {
+        return COMPONENT_AVAILABLE.equals(phase) || COMPONENT_DISABLED.equals(phase);
+    }
+
+    /**
+     * Updates the status of the stack from the phases of its components.
+     *
+     * @param stack The PaymentHubStack custom resource to update.
+     * @param components The status of each component, in wave order.
+     * @param waves The number of waves.
+     * @param currentWave The first wave that is not settled yet, or the number of waves once all are settled.
+     * @return An UpdateControl object indicating whether the status was successfully updated or not.
+     */
+    public static UpdateControl<PaymentHubStack> updateStackStatus(PaymentHubStack stack,
+                                                                   List<PaymentHubStackStatus.ComponentStatus> components,
+                                                                   int waves, int currentWave) {
+        PaymentHubStackStatus status = new PaymentHubStackStatus();
+        status.setObservedGeneration(stack.getMetadata().getGeneration());
+        status.setWaves(waves);
+        status.setCurrentWave(currentWave);
+        status.setTotalComponents(components.size());
+        status.setAvailableComponents((int) components.stream().filter(c -> isSettled(c.getPhase())).count());
+        status.setComponents(components);
+        status.setErrorMessage("");
+
+        List<String> failed = components.stream()
+                .filter(c -> COMPONENT_FAILED.equals(c.getPhase()))
+                .map(PaymentHubStackStatus.ComponentStatus::getName)
+                .collect(Collectors.toList());
+        if (!failed.isEmpty()) {
+            status.setPhase(STACK_FAILED);
+            status.setErrorMessage("Components " + failed + " failed.");
+        } else if (currentWave >= waves) {
+            status.setPhase(STACK_AVAILABLE);
+        } else {
+            status.setPhase(STACK_PROGRESSING);
+        }
+        status.setReady(STACK_AVAILABLE.equals(status.getPhase()));
+
+        log.info("Updating Stack Status - Phase: {}, Wave: {}/{}, Available Components: {}/{}", status.getPhase(),
+                currentWave, waves, status.getAvailableComponents(), status.getTotalComponents());
+
+        return applyStatus(stack, status);
+    }
+
+    /**
+     * Updates the status of the stack to report a component graph that cannot be rolled out.
+     *
+     * @param stack The PaymentHubStack custom resource to update.
+     * @param errorMessage Why the component graph is invalid.
+     * @return An UpdateControl object indicating whether the status was successfully updated or not.
+     */
+    public static UpdateControl<PaymentHubStack> updateInvalidStatus(PaymentHubStack stack, String errorMessage) {
+        PaymentHubStackStatus status = new PaymentHubStackStatus();
+        status.setObservedGeneration(stack.getMetadata().getGeneration());
+        status.setPhase(STACK_FAILED);
+        status.setReady(false);
+        status.setErrorMessage(errorMessage);
+        return applyStatus(stack, status);
+    }
+
+    private static UpdateControl<PaymentHubStack> applyStatus(PaymentHubStack stack, PaymentHubStackStatus status) {
+        if (status.equals(stack.getStatus())) {
+            log.debug("Status of {} is unchanged, skipping status update.", stack.getMetadata().getName());
+            return UpdateControl.noUpdate();
+        }
+        stack.setStatus(status);
+        return UpdateControl.patchStatus(stack);
+    }
+}
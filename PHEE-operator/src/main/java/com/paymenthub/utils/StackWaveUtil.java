@@ -0,0 +1,71 @@
+package com.paymenthub.utils;
+
+import com.paymenthub.customresource.PaymentHubStackSpec;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Utility class for ordering the components of a PaymentHubStack into rollout waves.
+ *
+ * A component belongs to the wave after the latest wave of the components it depends on, so components without
+ * dependencies form the first wave and every wave only depends on earlier ones. Components within a wave do not depend
+ * on each other and are rolled out in parallel.
+ */
+public class StackWaveUtil {
+
+    /**
+     * Orders the components into waves, keeping the declaration order within each wave.
+     *
+     * @param components The components of the stack.
+     * @return The component names of each wave, first wave first.
+     * @throws IllegalArgumentException If a component has no name or is declared twice, depends on an unknown
+     *                                  component, or is part of a dependency cycle.
+     */
+    public static List<List<String>> computeWaves(List<PaymentHubStackSpec.Component> components) {
+        Map<String, List<String>> dependencies = new LinkedHashMap<>();
+        for (PaymentHubStackSpec.Component component : components) {
+            if (component.getName() == null || component.getName().isEmpty()) {
+                throw new IllegalArgumentException("Every component must have a name.");
+            }
+            List<String> dependsOn = component.getDependsOn() != null ? component.getDependsOn() : Collections.emptyList();
+            if (dependencies.put(component.getName(), dependsOn) != null) {
+                throw new IllegalArgumentException("Component " + component.getName() + " is declared more than once.");
+            }
+        }
+        for (Map.Entry<String, List<String>> entry : dependencies.entrySet()) {
+            for (String dependency : entry.getValue()) {
+                if (!dependencies.containsKey(dependency)) {
+                    throw new IllegalArgumentException("Component " + entry.getKey() + " depends on unknown component "
+                            + dependency + ".");
+                }
+            }
+        }
+
+        // Assign waves in rounds: a component is placed once all of its dependencies have been placed in earlier rounds
+        Map<String, Integer> waveOf = new HashMap<>();
+        List<List<String>> waves = new ArrayList<>();
+        while (waveOf.size() < dependencies.size()) {
+            List<String> wave = new ArrayList<>();
+            for (Map.Entry<String, List<String>> entry : dependencies.entrySet()) {
+                if (!waveOf.containsKey(entry.getKey()) && waveOf.keySet().containsAll(entry.getValue())) {
+                    wave.add(entry.getKey());
+                }
+            }
+            if (wave.isEmpty()) {
+                List<String> unplaced = new ArrayList<>(dependencies.keySet());
+                unplaced.removeAll(waveOf.keySet());
+                throw new IllegalArgumentException("Components " + unplaced + " form a dependency cycle.");
+            }
+            for (String name : wave) {
+                waveOf.put(name, waves.size());
+            }
+            waves.add(wave);
+        }
+        return waves;
+    }
+}
@@ -2,11 +2,15 @@ package com.paymenthub.utils;
 
 import com.paymenthub.customresource.PaymentHubDeployment;
 import com.paymenthub.customresource.PaymentHubDeploymentStatus;
-import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.api.model.apps.Deployment;
+import io.fabric8.kubernetes.api.model.apps.DeploymentCondition;
+import io.fabric8.kubernetes.api.model.apps.DeploymentStatus;
 import io.javaoperatorsdk.operator.api.reconciler.UpdateControl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+
 /**
  * Utility class for updating the status of the PaymentHubDeployment custom resource.
  */
@@ -14,10 +18,20 @@ public class StatusUpdateUtil {
 
     private static final Logger log = LoggerFactory.getLogger(StatusUpdateUtil.class);
 
+    /** The Deployment has not been seen in the informer cache yet. */
+    public static final String ROLLOUT_PENDING = "Pending";
+    /** The Deployment controller is still replacing or starting pods. */
+    public static final String ROLLOUT_PROGRESSING = "Progressing";
+    /** All desired replicas run the current pod template and are available. */
+    public static final String ROLLOUT_COMPLETE = "Complete";
+    /** The rollout exceeded its progress deadline. */
+    public static final String ROLLOUT_FAILED = "Failed";
+    /** The Deployment is held at zero replicas until the dependencies in {@code spec.dependsOn} are ready. */
+    public static final String ROLLOUT_WAITING = "WaitingForDependencies";
+
     /**
      * Updates the status of the given PaymentHubDeployment resource with the provided details.
      * 
-     * @param kubernetesClient The Kubernetes client used to interact with the Kubernetes API.
      * @param resource The PaymentHubDeployment custom resource to update.
      * @param replicas The number of available replicas.
      * @param image The last applied image.
@@ -25,67 +39,184 @@ public class StatusUpdateUtil {
      * @param errorMessage An optional error message if applicable.
      * @return An UpdateControl object indicating whether the status was successfully updated or not.
      */
-    public static UpdateControl<PaymentHubDeployment> updateStatus(KubernetesClient kubernetesClient, PaymentHubDeployment resource, Integer replicas, String image, boolean isReady, String errorMessage) {
+    public static UpdateControl<PaymentHubDeployment> updateStatus(PaymentHubDeployment resource, Integer replicas, String image, boolean isReady, String errorMessage) {
         PaymentHubDeploymentStatus status = new PaymentHubDeploymentStatus();
         status.setAvailableReplicas(replicas);
         status.setLastAppliedImage(image);
         status.setReady(isReady);
         status.setErrorMessage(errorMessage);
+        // Only a successful reconciliation observes the current spec; a failed one keeps reporting the last good generation
+        status.setObservedGeneration(isReady ? resource.getMetadata().getGeneration() : previousObservedGeneration(resource));
 
-        resource.setStatus(status);
-        log.info("Updating Status - Available Replicas: {}, Last Applied Image: {}, Ready: {}, Error Message: {}",
-                status.getAvailableReplicas(), status.getLastAppliedImage(), status.isReady(), status.getErrorMessage());
-
-        if (kubernetesClient.resources(PaymentHubDeployment.class)
-                .inNamespace(resource.getMetadata().getNamespace())
-                .withName(resource.getMetadata().getName())
-                .get() != null) {
-            return UpdateControl.patchStatus(resource);
+        log.info("Updating Status - Available Replicas: {}, Last Applied Image: {}, Ready: {}, Error Message: {}, Observed Generation: {}",
+                status.getAvailableReplicas(), status.getLastAppliedImage(), status.isReady(), status.getErrorMessage(),
+                status.getObservedGeneration());
+
+        return applyStatus(resource, status);
+    }
+
+    /**
+     * Updates the status of the given PaymentHubDeployment resource from the rollout state of its Deployment, as last
+     * seen by the Deployment informer. Changes to the Deployment status trigger a new reconciliation, so the custom
+     * resource status follows the rollout without polling.
+     * 
+     * The rollout is complete once the Deployment controller has observed the latest Deployment spec and all desired
+     * replicas are updated and available, with no old replicas left, mirroring {@code kubectl rollout status}.
+     * 
+     * @param resource The PaymentHubDeployment custom resource to update.
+     * @param deployment The cached Deployment owned by the resource, or null if it is not in the cache yet.
+     * @return An UpdateControl object indicating whether the status was successfully updated or not.
+     */
+    public static UpdateControl<PaymentHubDeployment> updateRolloutStatus(PaymentHubDeployment resource, Deployment deployment) {
+        PaymentHubDeploymentStatus status = rolloutStatus(resource, deployment);
+
+        log.info("Updating Status - Rollout: {}, Available Replicas: {}, Updated Replicas: {}, Ready: {}",
+                status.getRolloutStatus(), status.getAvailableReplicas(), status.getUpdatedReplicas(), status.isReady());
+
+        return applyStatus(resource, status);
+    }
+
+    /**
+     * Updates the status of the given PaymentHubDeployment resource to report that its Deployment is held at zero
+     * replicas because some of its dependencies are not ready yet. The current generation counts as observed, since
+     * the Deployment was written from it.
+     * 
+     * @param resource The PaymentHubDeployment custom resource to update.
+     * @param deployment The cached Deployment owned by the resource, or null if it is not in the cache yet.
+     * @param pendingDependencies The dependencies that are not ready.
+     * @return An UpdateControl object indicating whether the status was successfully updated or not.
+     */
+    public static UpdateControl<PaymentHubDeployment> updateWaitingStatus(PaymentHubDeployment resource, Deployment deployment,
+                                                                          List<String> pendingDependencies) {
+        PaymentHubDeploymentStatus status = rolloutStatus(resource, deployment);
+        status.setRolloutStatus(ROLLOUT_WAITING);
+        status.setReady(false);
+        status.setPendingDependencies(pendingDependencies);
+
+        log.info("Updating Status - Rollout: {}, Pending Dependencies: {}", status.getRolloutStatus(), pendingDependencies);
+
+        return applyStatus(resource, status);
+    }
+
+    /**
+     * Computes the status of the given PaymentHubDeployment resource from the rollout state of its Deployment.
+     */
+    private static PaymentHubDeploymentStatus rolloutStatus(PaymentHubDeployment resource, Deployment deployment) {
+        PaymentHubDeploymentStatus status = new PaymentHubDeploymentStatus();
+        status.setLastAppliedImage(resource.getSpec().getImage());
+        status.setObservedGeneration(resource.getMetadata().getGeneration());
+        status.setErrorMessage("");
+
+        DeploymentStatus deploymentStatus = deployment != null ? deployment.getStatus() : null;
+        if (deploymentStatus == null) {
+            status.setAvailableReplicas(0);
+            status.setUpdatedReplicas(0);
+            status.setRolloutStatus(ROLLOUT_PENDING);
         } else {
-            log.error("Resource not found for status update: {}", resource.getMetadata().getName());
-            return UpdateControl.noUpdate();
+            int desired = deployment.getSpec().getReplicas() != null ? deployment.getSpec().getReplicas() : 1;
+            int replicas = valueOrZero(deploymentStatus.getReplicas());
+            int updated = valueOrZero(deploymentStatus.getUpdatedReplicas());
+            int available = valueOrZero(deploymentStatus.getAvailableReplicas());
+            status.setAvailableReplicas(available);
+            status.setUpdatedReplicas(updated);
+
+            DeploymentCondition progressing = deploymentStatus.getConditions() == null ? null
+                    : deploymentStatus.getConditions().stream()
+                            .filter(condition -> "Progressing".equals(condition.getType()))
+                            .findFirst().orElse(null);
+
+            if (deploymentStatus.getObservedGeneration() == null
+                    || deploymentStatus.getObservedGeneration() < deployment.getMetadata().getGeneration()) {
+                status.setRolloutStatus(ROLLOUT_PROGRESSING);
+            } else if (progressing != null && "ProgressDeadlineExceeded".equals(progressing.getReason())) {
+                status.setRolloutStatus(ROLLOUT_FAILED);
+                status.setErrorMessage(progressing.getMessage());
+            } else if (updated < desired || replicas > updated || available < updated) {
+                status.setRolloutStatus(ROLLOUT_PROGRESSING);
+            } else {
+                status.setRolloutStatus(ROLLOUT_COMPLETE);
+            }
         }
+        status.setReady(ROLLOUT_COMPLETE.equals(status.getRolloutStatus()));
+        return status;
     }
 
     /**
-     * Updates the status of the given PaymentHubDeployment resource to indicate an error during reconciliation.
+     * Updates the status of the given PaymentHubDeployment resource to indicate an error during reconciliation. A
+     * failed reconciliation leaves the running Deployment untouched, so the rollout fields of the current status are
+     * carried over and only the error message is set.
      * 
-     * @param kubernetesClient The Kubernetes client used to interact with the Kubernetes API.
      * @param resource The PaymentHubDeployment custom resource to update.
-     * @param image The last applied image.
+     * @param image The image reported as last applied if the resource has no status yet.
      * @param e The exception that occurred during reconciliation.
      * @return An UpdateControl object indicating whether the status was successfully updated or not.
      */
-    public static UpdateControl<PaymentHubDeployment> updateErrorStatus(KubernetesClient kubernetesClient, PaymentHubDeployment resource, String image, Exception e) {
-        return updateStatus(kubernetesClient, resource, 0, image, false, "Error during reconciliation: " + e.getMessage());
+    public static UpdateControl<PaymentHubDeployment> updateErrorStatus(PaymentHubDeployment resource, String image, Exception e) {
+        String errorMessage = "Error during reconciliation: " + e.getMessage();
+        PaymentHubDeploymentStatus current = resource.getStatus();
+        if (current == null) {
+            return updateStatus(resource, 0, image, false, errorMessage);
+        }
+
+        PaymentHubDeploymentStatus status = new PaymentHubDeploymentStatus();
+        status.setAvailableReplicas(current.getAvailableReplicas());
+        status.setUpdatedReplicas(current.getUpdatedReplicas());
+        status.setRolloutStatus(current.getRolloutStatus());
+        status.setPendingDependencies(current.getPendingDependencies());
+        status.setLastAppliedImage(current.getLastAppliedImage());
+        status.setReady(current.isReady());
+        status.setObservedGeneration(current.getObservedGeneration());
+        status.setErrorMessage(errorMessage);
+
+        log.info("Updating Status - Rollout: {}, Available Replicas: {}, Error Message: {}",
+                status.getRolloutStatus(), status.getAvailableReplicas(), status.getErrorMessage());
+
+        return applyStatus(resource, status);
     }
 
     /**
      * Updates the status of the given PaymentHubDeployment resource to indicate that the resource is disabled.
      * 
-     * @param kubernetesClient The Kubernetes client used to interact with the Kubernetes API.
      * @param resource The PaymentHubDeployment custom resource to update.
      * @return An UpdateControl object indicating whether the status was successfully updated or not.
      */
-    public static UpdateControl<PaymentHubDeployment> updateDisabledStatus(KubernetesClient kubernetesClient, PaymentHubDeployment resource) {
+    public static UpdateControl<PaymentHubDeployment> updateDisabledStatus(PaymentHubDeployment resource) {
         PaymentHubDeploymentStatus status = new PaymentHubDeploymentStatus();
         status.setAvailableReplicas(0);
         status.setLastAppliedImage(resource.getSpec().getImage());
         status.setReady(false);
         status.setErrorMessage("Resource is disabled and not created.");
+        status.setObservedGeneration(resource.getMetadata().getGeneration());
 
-        resource.setStatus(status);
         log.info("Resource {} is disabled. Setting status - Available Replicas: 0, Last Applied Image: {}, Ready: false, Error Message: Resource is disabled and not created.",
                 resource.getMetadata().getName());
 
-        if (kubernetesClient.resources(PaymentHubDeployment.class)
-                .inNamespace(resource.getMetadata().getNamespace())
-                .withName(resource.getMetadata().getName())
-                .get() != null) {
-            return UpdateControl.patchStatus(resource);
-        } else {
-            log.error("Resource not found for status update: {}", resource.getMetadata().getName());
+        return applyStatus(resource, status);
+    }
+
+    /**
+     * Sets the new status on the resource and patches it, unless it is identical to the current status. The resource
+     * comes from the informer cache, so its status is the one last seen on the API server and no existence GET is
+     * needed beforehand.
+     *
+     * @param resource The PaymentHubDeployment custom resource to update.
+     * @param status The newly computed status.
+     * @return patchStatus if the status changed, noUpdate otherwise.
+     */
+    private static UpdateControl<PaymentHubDeployment> applyStatus(PaymentHubDeployment resource, PaymentHubDeploymentStatus status) {
+        if (status.equals(resource.getStatus())) {
+            log.debug("Status of {} is unchanged, skipping status update.", resource.getMetadata().getName());
             return UpdateControl.noUpdate();
         }
+        resource.setStatus(status);
+        return UpdateControl.patchStatus(resource);
+    }
+
+    private static int valueOrZero(Integer value) {
+        return value != null ? value : 0;
+    }
+
+    private static Long previousObservedGeneration(PaymentHubDeployment resource) {
+        return resource.getStatus() != null ? resource.getStatus().getObservedGeneration() : null;
     }
 }
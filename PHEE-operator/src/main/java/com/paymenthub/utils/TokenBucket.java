@@ -0,0 +1,75 @@
+package com.paymenthub.utils;
+
+/**
+ * A token bucket that refills continuously at a fixed rate up to a maximum burst size.
+ *
+ * This class is not thread-safe; callers are expected to synchronize access.
+ */
+public class TokenBucket {
+
+    private double tokensPerSecond;
+    private double capacity;
+    private double tokens;
+    private long lastRefillNanos;
+
+    /**
+     * @param tokensPerSecond The rate at which tokens are added to the bucket.
+     * @param burst The maximum number of tokens the bucket can hold.
+     */
+    public TokenBucket(double tokensPerSecond, int burst) {
+        this.tokensPerSecond = tokensPerSecond;
+        this.capacity = Math.max(1, burst);
+        this.tokens = this.capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Returns how long a caller has to wait until a token is available, without taking one.
+     *
+     * @return The wait in nanoseconds, or 0 if a token is available now.
+     */
+    public long nanosUntilAvailable() {
+        refill();
+        if (tokens >= 1) {
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPerSecond * 1_000_000_000L);
+    }
+
+    /**
+     * Changes the refill rate and burst size. Tokens accumulated so far are kept, up to the new burst size.
+     *
+     * @param tokensPerSecond The new rate at which tokens are added to the bucket.
+     * @param burst The new maximum number of tokens the bucket can hold.
+     */
+    public void setRate(double tokensPerSecond, int burst) {
+        refill();
+        this.tokensPerSecond = tokensPerSecond;
+        this.capacity = Math.max(1, burst);
+        this.tokens = Math.min(tokens, capacity);
+    }
+
+    /**
+     * Checks whether the bucket has refilled to its burst size, i.e. is in the same state as a newly created bucket.
+     *
+     * @return true if the bucket is full, false otherwise.
+     */
+    public boolean isFull() {
+        refill();
+        return tokens >= capacity;
+    }
+
+    /**
+     * Takes a token from the bucket. Callers should check {@link #nanosUntilAvailable()} first.
+     */
+    public void take() {
+        refill();
+        tokens -= 1;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) / 1_000_000_000.0 * tokensPerSecond);
+        lastRefillNanos = now;
+    }
+}
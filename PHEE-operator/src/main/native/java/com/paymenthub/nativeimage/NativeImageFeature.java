@@ -0,0 +1,121 @@
+package com.paymenthub.nativeimage;
+
+import com.paymenthub.utils.HttpTransportUtil;
+
+import org.graalvm.nativeimage.hosted.Feature;
+import org.graalvm.nativeimage.hosted.RuntimeReflection;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * GraalVM native-image feature registering the classes that are instantiated or (de)serialized reflectively.
+ *
+ * Jackson reads and writes every fabric8 Kubernetes model class the operator touches, including the deeply nested pod
+ * template types, and JOSDK instantiates the reconciler's filters from their annotations. Listing all of these by hand
+ * in a reflect-config.json would break with every model upgrade, so the model packages the operator works with and
+ * its own classes are registered by scanning the image classpath at build time. The model packages of API groups the
+ * operator never reads or writes are left out to keep the image small.
+ *
+ * The JDK and Vert.x HTTP client factories are loaded by name, so whichever of them the build bundled through its
+ * {@code http-jdk} or {@code http-vertx} profile is registered as well.
+ *
+ * Only compiled and used by the {@code native} Maven profile.
+ */
+public class NativeImageFeature implements Feature {
+
+    // Model packages of the API groups the operator reads or writes; their subpackages are not included
+    private static final Set<String> MODEL_PACKAGES = new HashSet<>(Arrays.asList(
+            "io/fabric8/kubernetes/api/model",
+            "io/fabric8/kubernetes/api/model/apps",
+            "io/fabric8/kubernetes/api/model/autoscaling/v2",
+            "io/fabric8/kubernetes/api/model/coordination/v1",
+            "io/fabric8/kubernetes/api/model/discovery/v1",
+            "io/fabric8/kubernetes/api/model/networking/v1",
+            "io/fabric8/kubernetes/api/model/rbac"));
+
+    private static final String OPERATOR_PACKAGE = "com/paymenthub/";
+
+    @Override
+    public void beforeAnalysis(BeforeAnalysisAccess access) {
+        for (Path entry : access.getApplicationClassPath()) {
+            File file = entry.toFile();
+            if (file.isFile() && file.getName().endsWith(".jar")) {
+                registerJar(access, file);
+            } else if (file.isDirectory()) {
+                registerDirectory(access, file, file);
+            }
+        }
+        registerFactory(access, HttpTransportUtil.JDK_FACTORY);
+        registerFactory(access, HttpTransportUtil.VERTX_FACTORY);
+    }
+
+    private void registerJar(BeforeAnalysisAccess access, File jar) {
+        try (JarFile jarFile = new JarFile(jar)) {
+            Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                register(access, entries.nextElement().getName());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to scan " + jar, e);
+        }
+    }
+
+    private void registerDirectory(BeforeAnalysisAccess access, File root, File directory) {
+        File[] children = directory.listFiles();
+        if (children == null) {
+            return;
+        }
+        for (File child : children) {
+            if (child.isDirectory()) {
+                registerDirectory(access, root, child);
+            } else {
+                register(access, root.toPath().relativize(child.toPath()).toString().replace(File.separatorChar, '/'));
+            }
+        }
+    }
+
+    private void register(BeforeAnalysisAccess access, String entryName) {
+        if (!entryName.endsWith(".class") || entryName.endsWith("module-info.class") || !inRegisteredPackage(entryName)) {
+            return;
+        }
+        String className = entryName.substring(0, entryName.length() - ".class".length()).replace('/', '.');
+        Class<?> type = access.findClassByName(className);
+        if (type == null || className.startsWith("com.paymenthub.nativeimage.")) {
+            return;
+        }
+        RuntimeReflection.register(type);
+        RuntimeReflection.register(type.getDeclaredConstructors());
+        RuntimeReflection.register(type.getDeclaredMethods());
+        RuntimeReflection.register(type.getDeclaredFields());
+    }
+
+    /**
+     * Registers the no-argument constructor of an HTTP client factory, if its transport is on the image classpath.
+     */
+    private static void registerFactory(BeforeAnalysisAccess access, String className) {
+        Class<?> factory = access.findClassByName(className);
+        if (factory == null) {
+            return;
+        }
+        RuntimeReflection.register(factory);
+        try {
+            RuntimeReflection.register(factory.getDeclaredConstructor());
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(className + " has no no-argument constructor", e);
+        }
+    }
+
+    private static boolean inRegisteredPackage(String entryName) {
+        int lastSlash = entryName.lastIndexOf('/');
+        return entryName.startsWith(OPERATOR_PACKAGE)
+                || (lastSlash > 0 && MODEL_PACKAGES.contains(entryName.substring(0, lastSlash)));
+    }
+}
@@ -0,0 +1,85 @@
+package com.paymenthub;
+
+import com.paymenthub.customresource.PaymentHubDeployment;
+import com.paymenthub.customresource.PaymentHubDeploymentSpec;
+import com.paymenthub.utils.ApplyUtil;
+
+import io.fabric8.kubernetes.api.model.FieldsV1;
+import io.fabric8.kubernetes.api.model.ManagedFieldsEntry;
+import io.fabric8.kubernetes.api.model.ManagedFieldsEntryBuilder;
+import io.fabric8.kubernetes.api.model.apps.Deployment;
+import io.fabric8.kubernetes.api.model.apps.DeploymentBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PaymentHubDeploymentControllerTest {
+
+    @Test
+    void newDeploymentStartsAtMinReplicas() {
+        assertEquals(Integer.valueOf(2), PaymentHubDeploymentController.autoscaledReplicas(autoscaled(2), null, true));
+    }
+
+    @Test
+    void applyBeforeTheFirstScaleKeepsTheReplicaCount() {
+        // Only the operator owns spec.replicas after creation, so leaving it out would reset the Deployment to one replica
+        Deployment deployment = deployment(2, replicasOwnedBy(ApplyUtil.FIELD_MANAGER, "Apply", null));
+
+        assertEquals(Integer.valueOf(2), PaymentHubDeploymentController.autoscaledReplicas(autoscaled(2), deployment, true));
+    }
+
+    @Test
+    void applyAfterTheAutoscalerScaledLeavesTheReplicaCountOut() {
+        Deployment deployment = deployment(5,
+                replicasOwnedBy(ApplyUtil.FIELD_MANAGER, "Apply", null),
+                replicasOwnedBy("kube-controller-manager", "Update", "scale"));
+
+        assertNull(PaymentHubDeploymentController.autoscaledReplicas(autoscaled(2), deployment, true));
+    }
+
+    @Test
+    void replaceCarriesOverTheReplicaCount() {
+        Deployment deployment = deployment(5, replicasOwnedBy("kube-controller-manager", "Update", "scale"));
+
+        assertEquals(Integer.valueOf(5), PaymentHubDeploymentController.autoscaledReplicas(autoscaled(2), deployment, false));
+    }
+
+    private static PaymentHubDeployment autoscaled(int minReplicas) {
+        PaymentHubDeploymentSpec.Autoscaling autoscaling = new PaymentHubDeploymentSpec.Autoscaling();
+        autoscaling.setEnabled(true);
+        autoscaling.setMinReplicas(minReplicas);
+        PaymentHubDeploymentSpec spec = new PaymentHubDeploymentSpec();
+        spec.setAutoscaling(autoscaling);
+        PaymentHubDeployment resource = new PaymentHubDeployment();
+        resource.setSpec(spec);
+        return resource;
+    }
+
+    private static Deployment deployment(int replicas, ManagedFieldsEntry... managedFields) {
+        return new DeploymentBuilder()
+                .withNewMetadata()
+                    .withName("app")
+                    .withManagedFields(Arrays.asList(managedFields))
+                .endMetadata()
+                .withNewSpec()
+                    .withReplicas(replicas)
+                .endSpec()
+                .build();
+    }
+
+    private static ManagedFieldsEntry replicasOwnedBy(String manager, String operation, String subresource) {
+        FieldsV1 fields = new FieldsV1();
+        fields.setAdditionalProperty("f:spec", Collections.singletonMap("f:replicas", Collections.emptyMap()));
+        return new ManagedFieldsEntryBuilder()
+                .withManager(manager)
+                .withOperation(operation)
+                .withSubresource(subresource)
+                .withFieldsType("FieldsV1")
+                .withFieldsV1(fields)
+                .build();
+    }
+}
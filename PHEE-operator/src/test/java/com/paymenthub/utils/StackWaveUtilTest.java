@@ -0,0 +1,93 @@
+package com.paymenthub.utils;
+
+import com.paymenthub.customresource.PaymentHubStackSpec;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StackWaveUtilTest {
+
+    @Test
+    void componentsWithoutDependenciesFormOneWave() {
+        List<List<String>> waves = StackWaveUtil.computeWaves(Arrays.asList(
+                component("mysql"),
+                component("zeebe")));
+
+        assertEquals(Collections.singletonList(Arrays.asList("mysql", "zeebe")), waves);
+    }
+
+    @Test
+    void componentsFollowTheLatestWaveOfTheirDependencies() {
+        List<List<String>> waves = StackWaveUtil.computeWaves(Arrays.asList(
+                component("operations-web", "operations-app"),
+                component("operations-app", "mysql", "zeebe"),
+                component("zeebe"),
+                component("channel", "zeebe"),
+                component("mysql")));
+
+        assertEquals(Arrays.asList(
+                Arrays.asList("zeebe", "mysql"),
+                Arrays.asList("operations-app", "channel"),
+                Collections.singletonList("operations-web")), waves);
+    }
+
+    @Test
+    void emptyStackHasNoWaves() {
+        assertTrue(StackWaveUtil.computeWaves(Collections.<PaymentHubStackSpec.Component>emptyList()).isEmpty());
+    }
+
+    @Test
+    void dependencyCycleIsRejected() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> StackWaveUtil.computeWaves(
+                Arrays.asList(
+                        component("mysql"),
+                        component("a", "mysql", "c"),
+                        component("b", "a"),
+                        component("c", "b"))));
+
+        assertEquals("Components [a, b, c] form a dependency cycle.", e.getMessage());
+    }
+
+    @Test
+    void selfDependencyIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> StackWaveUtil.computeWaves(
+                Collections.singletonList(component("a", "a"))));
+    }
+
+    @Test
+    void unknownDependencyIsRejected() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> StackWaveUtil.computeWaves(
+                Arrays.asList(
+                        component("operations-app", "mysql"),
+                        component("zeebe"))));
+
+        assertEquals("Component operations-app depends on unknown component mysql.", e.getMessage());
+    }
+
+    @Test
+    void duplicateComponentIsRejected() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> StackWaveUtil.computeWaves(
+                Arrays.asList(
+                        component("mysql"),
+                        component("mysql"))));
+
+        assertEquals("Component mysql is declared more than once.", e.getMessage());
+    }
+
+    @Test
+    void componentWithoutNameIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> StackWaveUtil.computeWaves(
+                Collections.singletonList(component(""))));
+    }
+
+    private static PaymentHubStackSpec.Component component(String name, String... dependsOn) {
+        return new PaymentHubStackSpec.Component(name, dependsOn.length > 0 ? Arrays.asList(dependsOn) : null, null);
+    }
+}